@@ -5,11 +5,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import edu.tamu.iiif.model.RedisManifest;
+import edu.tamu.iiif.service.ImageInfoCache;
+import edu.tamu.iiif.service.LocalManifestCache;
 
 /**
  * Redis configuration.
@@ -37,4 +41,21 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * Subscribe the local manifest cache and the image info cache to invalidations published by other
+     * instances.
+     *
+     * @param localManifestCache
+     * @param imageInfoCache
+     * @return
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LocalManifestCache localManifestCache, ImageInfoCache imageInfoCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(jedisConnectionFactory);
+        container.addMessageListener(localManifestCache, new ChannelTopic(LocalManifestCache.CHANNEL));
+        container.addMessageListener(imageInfoCache, new ChannelTopic(ImageInfoCache.CHANNEL));
+        return container;
+    }
+
 }
@@ -1,6 +1,7 @@
 package edu.tamu.iiif.config;
 
 import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 
@@ -33,8 +34,20 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                     .hasRole("ADMIN")
                 .antMatchers(PUT, "/resources")
                     .hasRole("ADMIN")
+                .antMatchers(POST, "/resources/batch")
+                    .hasRole("ADMIN")
+                .antMatchers(GET, "/resources/mappings")
+                    .hasRole("ADMIN")
+                .antMatchers(POST, "/resources/mappings")
+                    .hasRole("ADMIN")
                 .antMatchers(DELETE, "/resources/*")
                     .hasRole("ADMIN")
+                .antMatchers(DELETE, "/resources/*/info")
+                    .hasRole("ADMIN")
+                .antMatchers(GET, "/actuator/metrics/**")
+                    .hasRole("ADMIN")
+                .antMatchers(GET, "/cache/**")
+                    .hasRole("ADMIN")
             .anyRequest()
                 .permitAll()
             .and()
@@ -1,6 +1,7 @@
 package edu.tamu.iiif.config.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public abstract class AbstractIiifConfig {
@@ -17,6 +18,16 @@ public abstract class AbstractIiifConfig {
 
     private List<String> metadataExclusion = new ArrayList<String>();
 
+    // @formatter:off
+    private List<String> rdfAccept = new ArrayList<String>(Arrays.asList(
+        "text/turtle",
+        "application/n-triples;q=0.9",
+        "application/rdf+xml;q=0.8",
+        "application/ld+json;q=0.7",
+        "*/*;q=0.1"
+    ));
+    // @formatter:on
+
     private String url;
 
     private String identifier;
@@ -75,6 +86,14 @@ public abstract class AbstractIiifConfig {
         this.metadataExclusion = metadataExclusion;
     }
 
+    public List<String> getRdfAccept() {
+        return rdfAccept;
+    }
+
+    public void setRdfAccept(List<String> rdfAccept) {
+        this.rdfAccept = rdfAccept;
+    }
+
     public String getUrl() {
         return url;
     }
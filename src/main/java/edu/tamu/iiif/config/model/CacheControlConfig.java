@@ -0,0 +1,45 @@
+package edu.tamu.iiif.config.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import edu.tamu.iiif.model.ManifestType;
+
+/**
+ * Cache-Control sent with manifests, per manifest type with a fallback for types not listed. Stale
+ * manifests served while being regenerated are always sent with no-cache.
+ */
+@Component
+@ConfigurationProperties(prefix = "iiif.service.cache-control")
+public class CacheControlConfig {
+
+    public final static String STALE = "no-cache";
+
+    private String fallback = "public, no-cache";
+
+    private Map<ManifestType, String> types = new EnumMap<ManifestType, String>(ManifestType.class);
+
+    public String getFallback() {
+        return fallback;
+    }
+
+    public void setFallback(String fallback) {
+        this.fallback = fallback;
+    }
+
+    public Map<ManifestType, String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<ManifestType, String> types) {
+        this.types = types;
+    }
+
+    public String getCacheControl(ManifestType type) {
+        return types.getOrDefault(type, fallback);
+    }
+
+}
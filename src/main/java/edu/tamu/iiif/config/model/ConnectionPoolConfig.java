@@ -0,0 +1,86 @@
+package edu.tamu.iiif.config.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Named HTTP connection pool profiles. Each profile owns its own connection pool and serves the
+ * upstream hosts, as host or host:port, it lists. Hosts not listed by any profile share the default
+ * profile.
+ */
+@Component
+@ConfigurationProperties(prefix = "iiif.service.connection")
+public class ConnectionPoolConfig {
+
+    public final static String DEFAULT_POOL = "default";
+
+    private Map<String, PoolProfile> pools = new LinkedHashMap<String, PoolProfile>();
+
+    public Map<String, PoolProfile> getPools() {
+        return pools;
+    }
+
+    public void setPools(Map<String, PoolProfile> pools) {
+        this.pools = pools;
+    }
+
+    public static class PoolProfile {
+
+        private List<String> hosts = new ArrayList<String>();
+
+        private int maxPerRoute = 20;
+
+        private int maxTotal = 40;
+
+        private long keepAlive = 30000;
+
+        private int validateAfterInactivity = 2000;
+
+        public List<String> getHosts() {
+            return hosts;
+        }
+
+        public void setHosts(List<String> hosts) {
+            this.hosts = hosts;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public long getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(long keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public int getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(int validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+
+    }
+
+}
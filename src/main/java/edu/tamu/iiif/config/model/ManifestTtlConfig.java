@@ -0,0 +1,56 @@
+package edu.tamu.iiif.config.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import edu.tamu.iiif.model.ManifestType;
+
+/**
+ * Milliseconds a cached manifest is kept in Redis since it was last stored or requested, per manifest
+ * type with a fallback for types not listed. A TTL of 0 keeps manifests until they are deleted.
+ *
+ * The expiry of a requested manifest is extended at most once per refresh interval and instance, so
+ * requests served from the local cache do not each cost a Redis round trip.
+ */
+@Component
+@ConfigurationProperties(prefix = "iiif.service.manifest-store.ttl")
+public class ManifestTtlConfig {
+
+    private long fallback = 2592000000L;
+
+    private Map<ManifestType, Long> types = new EnumMap<ManifestType, Long>(ManifestType.class);
+
+    private long refreshInterval = 3600000;
+
+    public long getFallback() {
+        return fallback;
+    }
+
+    public void setFallback(long fallback) {
+        this.fallback = fallback;
+    }
+
+    public Map<ManifestType, Long> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<ManifestType, Long> types) {
+        this.types = types;
+    }
+
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public long getTtl(ManifestType type) {
+        return Math.max(0, types.getOrDefault(type, fallback));
+    }
+
+}
@@ -1,38 +1,116 @@
 package edu.tamu.iiif.controller;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.text.StringEscapeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import edu.tamu.iiif.config.model.CacheControlConfig;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.ManifestResult;
+import edu.tamu.iiif.model.ManifestValidators;
 import edu.tamu.iiif.service.ManifestService;
 
 public abstract class AbstractManifestController<S extends ManifestService> {
 
+    private final static String STALE_WARNING = "110 - \"Response is Stale\"";
+
     @Autowired
     private S manifestService;
 
+    @Autowired
+    private CacheControlConfig cacheControlConfig;
+
+    @Autowired
+    private HttpServletRequest servletRequest;
+
     public abstract void manifest(HttpServletResponse response, ManifestRequest request) throws IOException, URISyntaxException;
 
     protected void sendManifest(ManifestBuilder builder) throws IOException, URISyntaxException {
-        setResponseFile(builder.getResponse());
-        sendJsonFile(builder.getResponse(), manifestService.getManifest(builder.getRequest()));
+        HttpServletResponse response = builder.getResponse();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!builder.getRequest().isUpdate()) {
+            // answer If-None-Match and If-Modified-Since from the stored manifest without reading its body
+            Optional<ManifestValidators> validators = manifestService.getManifestValidators(builder.getRequest());
+            if (validators.isPresent() && isNotModified(response, validators.get())) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControlConfig.getCacheControl(manifestService.getManifestType()));
+                return;
+            }
+        }
+        ManifestResult manifest = manifestService.getManifestResult(builder.getRequest());
+        ManifestEncoding sent = getSentEncoding(manifest.getValidators().getEncoding());
+        setResponseFile(response);
+        setValidators(response, manifest.getValidators(), sent);
+        if (manifest.isStale()) {
+            // served from cache while the manifest is regenerated in the background
+            response.setHeader(HttpHeaders.WARNING, STALE_WARNING);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControlConfig.STALE);
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControlConfig.getCacheControl(manifestService.getManifestType()));
+        }
+        sendBody(response, manifest.getBody(), sent);
+    }
+
+    private boolean isNotModified(HttpServletResponse response, ManifestValidators validators) {
+        String etag = validators.getEtag(getSentEncoding(validators.getEncoding()));
+        return new ServletWebRequest(servletRequest, response).checkNotModified(etag, validators.getLastModified());
+    }
+
+    private void setValidators(HttpServletResponse response, ManifestValidators validators, ManifestEncoding sent) {
+        response.setHeader(HttpHeaders.ETAG, "\"" + validators.getEtag(sent) + "\"");
+        if (validators.getLastModified() > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, validators.getLastModified());
+        }
+    }
+
+    /**
+     * The stored encoding when the client accepts it, otherwise the manifest is decoded while sending.
+     */
+    private ManifestEncoding getSentEncoding(ManifestEncoding stored) {
+        if (stored == ManifestEncoding.NONE) {
+            return stored;
+        }
+        Enumeration<String> acceptEncodings = servletRequest.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (acceptEncodings != null && acceptEncodings.hasMoreElements()) {
+            for (String coding : acceptEncodings.nextElement().split(",")) {
+                String[] parameters = coding.trim().split("\\s*;\\s*");
+                boolean refused = Arrays.stream(parameters).skip(1).anyMatch(parameter -> parameter.matches("(?i)q=0(\\.0*)?"));
+                if (parameters[0].equalsIgnoreCase(stored.getName()) && !refused) {
+                    return stored;
+                }
+            }
+        }
+        return ManifestEncoding.NONE;
     }
 
     private void setResponseFile(HttpServletResponse response) {
         response.setContentType("application/json");
     }
 
-    private void sendJsonFile(HttpServletResponse response, String json) throws IOException {
-        InputStream inputStream = new ByteArrayInputStream(StringEscapeUtils.unescapeJson(json).getBytes(StandardCharsets.UTF_8));
-        IOUtils.copy(inputStream, response.getOutputStream());
+    private void sendBody(HttpServletResponse response, ManifestBody body, ManifestEncoding sent) throws IOException {
+        if (sent != ManifestEncoding.NONE) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, sent.getName());
+        }
+        if (sent == body.getEncoding()) {
+            // stored bytes as is, without recompressing
+            response.setContentLength(body.getBytes().length);
+            response.getOutputStream().write(body.getBytes());
+        } else {
+            try (InputStream inputStream = body.openStream()) {
+                IOUtils.copy(inputStream, response.getOutputStream());
+            }
+        }
         response.flushBuffer();
     }
 
@@ -0,0 +1,34 @@
+package edu.tamu.iiif.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.tamu.iiif.model.CacheReport;
+import edu.tamu.iiif.service.RedisIndexSweeper;
+import edu.tamu.iiif.service.RedisManifestStore;
+import edu.tamu.iiif.service.RedisResourceResolver;
+import edu.tamu.iiif.service.ResourceRegistry;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    @Autowired
+    private RedisManifestStore redisManifestStore;
+
+    @Autowired
+    private RedisIndexSweeper redisIndexSweeper;
+
+    @Autowired
+    private ResourceRegistry resourceRegistry;
+
+    @GetMapping(value = "/report", produces = "application/json")
+    public ResponseEntity<CacheReport> getReport() {
+        long resources = redisIndexSweeper.size(RedisResourceResolver.KEYSPACE) + resourceRegistry.size();
+        return ResponseEntity.ok(new CacheReport(redisManifestStore.report(), resources, redisIndexSweeper.size("image-info")));
+    }
+
+}
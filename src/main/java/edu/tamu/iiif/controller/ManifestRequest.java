@@ -5,6 +5,7 @@ import static edu.tamu.iiif.utility.StringUtility.decode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import edu.tamu.iiif.model.RedisManifest;
 
@@ -18,11 +19,18 @@ public class ManifestRequest {
 
     private final List<String> disallowed;
 
+    private final boolean forced;
+
     public ManifestRequest(String context, boolean update, List<String> allowed, List<String> disallowed) {
+        this(context, update, allowed, disallowed, false);
+    }
+
+    public ManifestRequest(String context, boolean update, List<String> allowed, List<String> disallowed, boolean forced) {
         this.context = context;
         this.update = update;
         this.allowed = allowed;
         this.disallowed = disallowed;
+        this.forced = forced;
     }
 
     public String getContext() {
@@ -33,6 +41,15 @@ public class ManifestRequest {
         return update;
     }
 
+    /**
+     * Whether the update follows a change in the repository and must not be rate limited.
+     *
+     * @return
+     */
+    public boolean isForced() {
+        return forced;
+    }
+
     public String getAllowed() {
         return String.join(";", allowed);
     }
@@ -41,6 +58,24 @@ public class ManifestRequest {
         return String.join(";", disallowed);
     }
 
+    /**
+     * Allowed mime types sorted and without duplicates, equivalent requests share a cached manifest.
+     *
+     * @return
+     */
+    public String getCanonicalAllowed() {
+        return canonicalize(allowed);
+    }
+
+    /**
+     * Disallowed mime types sorted and without duplicates, equivalent requests share a cached manifest.
+     *
+     * @return
+     */
+    public String getCanonicalDisallowed() {
+        return canonicalize(disallowed);
+    }
+
     public static ManifestRequest of(String path, boolean update, List<String> allowed, List<String> disallowed) {
         return new ManifestRequest(path, update, allowed, disallowed);
     }
@@ -50,9 +85,17 @@ public class ManifestRequest {
     }
 
     public static ManifestRequest of(RedisManifest manifest) {
-        List<String> allowedList = Arrays.asList(manifest.getAllowed().split(","));
-        List<String> disallowedList = Arrays.asList(manifest.getDisallowed().split(","));
-        return new ManifestRequest(decode(manifest.getPath()), true, allowedList, disallowedList);
+        List<String> allowedList = Arrays.asList(manifest.getAllowed().split(";"));
+        List<String> disallowedList = Arrays.asList(manifest.getDisallowed().split(";"));
+        return new ManifestRequest(decode(manifest.getPath()), true, allowedList, disallowedList, true);
+    }
+
+    public static String canonicalize(String mimeTypes) {
+        return canonicalize(Arrays.asList(mimeTypes.split("[;,]")));
+    }
+
+    private static String canonicalize(List<String> mimeTypes) {
+        return mimeTypes.stream().map(String::trim).filter(mimeType -> !mimeType.isEmpty()).distinct().sorted().collect(Collectors.joining(";"));
     }
 
 }
@@ -4,41 +4,71 @@ import static org.springframework.http.HttpStatus.MOVED_PERMANENTLY;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.view.RedirectView;
 
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.ResourceImport;
+import edu.tamu.iiif.service.ImageInfoCache;
 import edu.tamu.iiif.service.ResourceResolver;
+import edu.tamu.iiif.service.ResourceTransfer;
+import io.micrometer.core.annotation.Timed;
 
 @RestController
 @RequestMapping("/resources")
 public class ResourceController {
 
+    private final static String METRIC = "iiif.resources.requests";
+
+    private final static String NDJSON = "application/x-ndjson";
+
     @Autowired
     private ResourceResolver resourceResolver;
 
+    @Autowired
+    private ImageInfoCache imageInfoCache;
+
+    @Autowired
+    private ResourceTransfer resourceTransfer;
+
+    @Value("${iiif.resolver.cache-control:public, max-age=86400}")
+    private String cacheControl;
+
+    @Timed(value = METRIC, extraTags = { "endpoint", "url" }, percentiles = { 0.5, 0.95, 0.99 })
     @GetMapping(value = "/{id}", produces = "text/plain")
     public ResponseEntity<String> getResourceUrl(@PathVariable String id) throws NotFoundException {
-        return ResponseEntity.ok(resourceResolver.resolve(id));
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, cacheControl).body(resourceResolver.resolve(id));
     }
 
+    /**
+     * Permanent redirect to the resource, clients and proxies may cache it as the mapping of an id
+     * does not change while the resource exists.
+     */
+    @Timed(value = METRIC, extraTags = { "endpoint", "redirect" }, percentiles = { 0.5, 0.95, 0.99 })
     @GetMapping(value = "/{id}/redirect")
-    public RedirectView redirectToResource(@PathVariable String id) throws NotFoundException {
+    public ResponseEntity<Void> redirectToResource(@PathVariable String id) throws NotFoundException {
         String url = resourceResolver.resolve(id);
-        RedirectView redirect = new RedirectView(url);
-        redirect.setStatusCode(MOVED_PERMANENTLY);
-        return redirect;
+        return ResponseEntity.status(MOVED_PERMANENTLY).header(HttpHeaders.LOCATION, url).header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
     }
 
     @GetMapping(value = "/lookup", produces = "text/plain")
@@ -55,10 +85,39 @@ public class ResourceController {
         }
     }
 
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Map<String, String>> addResources(@RequestBody List<String> uris) throws URISyntaxException {
+        return ResponseEntity.ok(resourceResolver.lookupOrCreateAll(uris));
+    }
+
+    @PostMapping(value = "/batch/resolve", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Map<String, String>> getResourceUrls(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(resourceResolver.resolveAll(ids));
+    }
+
+    @GetMapping(value = "/mappings", produces = NDJSON)
+    public void exportResources(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        resourceTransfer.export(response.getOutputStream());
+        response.flushBuffer();
+    }
+
+    @PostMapping(value = "/mappings", consumes = NDJSON, produces = "application/json")
+    public ResponseEntity<ResourceImport> importResources(InputStream body) throws IOException {
+        return ResponseEntity.ok(resourceTransfer.load(body));
+    }
+
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping(value = "/{id}", produces = "text/plain")
     public void removeResource(@PathVariable String id) throws NotFoundException {
         resourceResolver.remove(id);
+        imageInfoCache.evict(id);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping(value = "/{id}/info", produces = "text/plain")
+    public void evictImageInfo(@PathVariable String id) {
+        imageInfoCache.evict(id);
     }
 
 }
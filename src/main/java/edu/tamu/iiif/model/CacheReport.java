@@ -0,0 +1,42 @@
+package edu.tamu.iiif.model;
+
+import java.util.List;
+
+/**
+ * Sizes of what is cached in Redis, to size its maxmemory by.
+ */
+public class CacheReport {
+
+    private final List<CacheSize> manifests;
+
+    private final long resources;
+
+    private final long imageInfos;
+
+    public CacheReport(List<CacheSize> manifests, long resources, long imageInfos) {
+        this.manifests = manifests;
+        this.resources = resources;
+        this.imageInfos = imageInfos;
+    }
+
+    public List<CacheSize> getManifests() {
+        return manifests;
+    }
+
+    public long getManifestCount() {
+        return manifests.stream().mapToLong(CacheSize::getCount).sum();
+    }
+
+    public long getManifestBytes() {
+        return manifests.stream().mapToLong(CacheSize::getBytes).sum();
+    }
+
+    public long getResources() {
+        return resources;
+    }
+
+    public long getImageInfos() {
+        return imageInfos;
+    }
+
+}
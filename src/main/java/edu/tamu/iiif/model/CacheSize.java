@@ -0,0 +1,42 @@
+package edu.tamu.iiif.model;
+
+/**
+ * Number and stored bytes of cached manifests of one repository and type.
+ */
+public class CacheSize {
+
+    private final String repository;
+
+    private final String type;
+
+    private long count;
+
+    private long bytes;
+
+    public CacheSize(String repository, String type) {
+        this.repository = repository;
+        this.type = type;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void add(long bytes) {
+        this.count++;
+        this.bytes += bytes;
+    }
+
+}
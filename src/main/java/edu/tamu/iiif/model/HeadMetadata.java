@@ -0,0 +1,54 @@
+package edu.tamu.iiif.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+
+public class HeadMetadata {
+
+    private final Optional<String> contentType;
+
+    private final List<String> links;
+
+    private final Optional<String> eTag;
+
+    private final Optional<String> lastModified;
+
+    private HeadMetadata(Optional<String> contentType, List<String> links, Optional<String> eTag, Optional<String> lastModified) {
+        this.contentType = contentType;
+        this.links = links;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public Optional<String> getContentType() {
+        return contentType;
+    }
+
+    public Optional<List<String>> getLinks() {
+        return links.isEmpty() ? Optional.empty() : Optional.of(links);
+    }
+
+    public Optional<String> getETag() {
+        return eTag;
+    }
+
+    public Optional<String> getLastModified() {
+        return lastModified;
+    }
+
+    public static HeadMetadata of(HttpHeaders headers) {
+        if (headers == null) {
+            return empty();
+        }
+        Optional<List<String>> links = Optional.ofNullable(headers.get(HttpHeaders.LINK));
+        return new HeadMetadata(Optional.ofNullable(headers.getFirst(HttpHeaders.CONTENT_TYPE)), links.orElse(Collections.emptyList()), Optional.ofNullable(headers.getETag()), Optional.ofNullable(headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+    }
+
+    public static HeadMetadata empty() {
+        return new HeadMetadata(Optional.empty(), Collections.emptyList(), Optional.empty(), Optional.empty());
+    }
+
+}
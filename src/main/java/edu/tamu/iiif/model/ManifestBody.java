@@ -0,0 +1,61 @@
+package edu.tamu.iiif.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Manifest as sent to clients, its JSON as UTF-8 in the content encoding it is stored with. The ETag
+ * over the JSON is known when the body was just written, not when it was read back from Redis.
+ */
+public class ManifestBody {
+
+    private final byte[] bytes;
+
+    private final ManifestEncoding encoding;
+
+    private final String etag;
+
+    public ManifestBody(byte[] bytes, ManifestEncoding encoding) {
+        this(bytes, encoding, null);
+    }
+
+    public ManifestBody(byte[] bytes, ManifestEncoding encoding, String etag) {
+        this.bytes = bytes;
+        this.encoding = encoding;
+        this.etag = etag;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public ManifestEncoding getEncoding() {
+        return encoding;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public InputStream openStream() throws IOException {
+        return encoding.decode(new ByteArrayInputStream(bytes));
+    }
+
+    public String decode() throws IOException {
+        if (encoding == ManifestEncoding.NONE) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (InputStream inputStream = openStream()) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static ManifestBody encode(String json, ManifestEncoding encoding) throws IOException {
+        return new ManifestBody(encoding.encode(json.getBytes(StandardCharsets.UTF_8)), encoding, ManifestValidators.etag(json));
+    }
+
+}
@@ -0,0 +1,71 @@
+package edu.tamu.iiif.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content encoding manifests are stored with, named as in Content-Encoding and Accept-Encoding.
+ */
+public enum ManifestEncoding {
+
+    // @formatter:off
+    NONE("identity"),
+    GZIP("gzip");
+    // @formatter:on
+
+    private final String name;
+
+    ManifestEncoding(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Encoding by its name or constant, e.g. gzip or none.
+     *
+     * @param name
+     * @return
+     */
+    public static ManifestEncoding of(String name) {
+        for (ManifestEncoding encoding : values()) {
+            if (encoding.name.equalsIgnoreCase(name) || encoding.name().equalsIgnoreCase(name)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported manifest encoding " + name);
+    }
+
+    public byte[] encode(byte[] bytes) throws IOException {
+        if (this == NONE) {
+            return bytes;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (OutputStream outputStream = encode(encoded)) {
+            outputStream.write(bytes);
+        }
+        return encoded.toByteArray();
+    }
+
+    /**
+     * Stream encoding what is written to it into the given stream, closing it finishes the encoding.
+     *
+     * @param outputStream
+     * @return
+     * @throws IOException
+     */
+    public OutputStream encode(OutputStream outputStream) throws IOException {
+        return this == NONE ? outputStream : new GZIPOutputStream(outputStream, 8192);
+    }
+
+    public InputStream decode(InputStream inputStream) throws IOException {
+        return this == NONE ? inputStream : new GZIPInputStream(inputStream);
+    }
+
+}
@@ -0,0 +1,59 @@
+package edu.tamu.iiif.model;
+
+import java.io.IOException;
+
+public class ManifestResult {
+
+    private final ManifestBody body;
+
+    private final ManifestValidators validators;
+
+    private final boolean stale;
+
+    public ManifestResult(ManifestBody body, ManifestValidators validators, boolean stale) {
+        this.body = body;
+        this.validators = validators;
+        this.stale = stale;
+    }
+
+    public ManifestBody getBody() {
+        return body;
+    }
+
+    public String getJson() throws IOException {
+        return body.decode();
+    }
+
+    public ManifestValidators getValidators() {
+        return validators;
+    }
+
+    /**
+     * Whether the manifest is served from cache while it is being regenerated.
+     *
+     * @return
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public static ManifestResult of(RedisManifest manifest, ManifestBody body, boolean stale) {
+        return new ManifestResult(body, ManifestValidators.of(manifest), stale);
+    }
+
+    /**
+     * Result of a manifest just generated, validated by the ETag computed while writing its body.
+     *
+     * @param body
+     * @param stale
+     * @return
+     */
+    public static ManifestResult of(ManifestBody body, boolean stale) {
+        return new ManifestResult(body, new ManifestValidators(body.getEtag(), System.currentTimeMillis(), body.getEncoding()), stale);
+    }
+
+    public static ManifestResult of(String json, boolean stale) throws IOException {
+        return new ManifestResult(ManifestBody.encode(json, ManifestEncoding.NONE), new ManifestValidators(ManifestValidators.etag(json), System.currentTimeMillis()), stale);
+    }
+
+}
@@ -0,0 +1,55 @@
+package edu.tamu.iiif.model;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * HTTP validators of a manifest, a strong ETag over its JSON and the time it was generated. The ETag
+ * of the stored content encoding is suffixed with the encoding, as that representation differs.
+ */
+public class ManifestValidators {
+
+    private final String etag;
+
+    private final long lastModified;
+
+    private final ManifestEncoding encoding;
+
+    public ManifestValidators(String etag, long lastModified) {
+        this(etag, lastModified, ManifestEncoding.NONE);
+    }
+
+    public ManifestValidators(String etag, long lastModified, ManifestEncoding encoding) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.encoding = encoding;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getEtag(ManifestEncoding sent) {
+        return sent == ManifestEncoding.NONE ? etag : etag + "-" + sent.getName();
+    }
+
+    public ManifestEncoding getEncoding() {
+        return encoding;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public static ManifestValidators of(RedisManifest manifest) {
+        String etag = manifest.getEtag() != null ? manifest.getEtag() : etag(manifest.getJson());
+        ManifestEncoding encoding = manifest.getJson() == null && manifest.getEncoding() != null ? manifest.getEncoding() : ManifestEncoding.NONE;
+        return new ManifestValidators(etag, manifest.getCreation() != null ? manifest.getCreation() : -1, encoding);
+    }
+
+    public static String etag(String json) {
+        return DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
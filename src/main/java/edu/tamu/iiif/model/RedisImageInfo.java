@@ -0,0 +1,61 @@
+package edu.tamu.iiif.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.redis.core.RedisHash;
+
+@RedisHash("image-info")
+public class RedisImageInfo {
+
+    @Id
+    private String id;
+
+    private int width;
+
+    private int height;
+
+    private Integer pageCount;
+
+    public RedisImageInfo() {
+
+    }
+
+    public RedisImageInfo(String id, int width, int height, Integer pageCount) {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.pageCount = pageCount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+}
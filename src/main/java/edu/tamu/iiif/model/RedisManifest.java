@@ -29,6 +29,10 @@ public class RedisManifest {
 
     private String json;
 
+    private String etag;
+
+    private ManifestEncoding encoding;
+
     private Long creation;
 
     public RedisManifest() {
@@ -111,6 +115,22 @@ public class RedisManifest {
         this.json = json;
     }
 
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public ManifestEncoding getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(ManifestEncoding encoding) {
+        this.encoding = encoding;
+    }
+
     public Long getCreation() {
         return creation;
     }
@@ -1,9 +1,11 @@
 package edu.tamu.iiif.model;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.TimeToLive;
 import org.springframework.data.redis.core.index.Indexed;
 
 @RedisHash("resource")
@@ -15,11 +17,25 @@ public class RedisResource {
     @Indexed
     private String url;
 
+    // milliseconds until the resource expires, none when null
+    @TimeToLive(unit = TimeUnit.MILLISECONDS)
+    private Long ttl;
+
     public RedisResource(String url) {
-        this.id = UUID.nameUUIDFromBytes(url.getBytes()).toString();
+        this.id = id(url);
         this.url = url;
     }
 
+    /**
+     * Resolver id of the URL, the same on every instance.
+     *
+     * @param url
+     * @return
+     */
+    public static String id(String url) {
+        return UUID.nameUUIDFromBytes(url.getBytes()).toString();
+    }
+
     public String getId() {
         return id;
     }
@@ -36,4 +52,12 @@ public class RedisResource {
         this.url = url;
     }
 
+    public Long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Long ttl) {
+        this.ttl = ttl;
+    }
+
 }
@@ -0,0 +1,48 @@
+package edu.tamu.iiif.model;
+
+/**
+ * Outcome of importing resolver mappings. Mappings whose id or URL is stored already are skipped, so
+ * an import can be run again after a failure. Mappings whose id is not the one derived from their URL
+ * are rejected, resolvers look ids up by derivation only.
+ */
+public class ResourceImport {
+
+    private long read;
+
+    private long imported;
+
+    private long skipped;
+
+    private long invalid;
+
+    private long rejected;
+
+    public long getRead() {
+        return read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void add(long imported, long skipped, long invalid, long rejected) {
+        this.imported += imported;
+        this.skipped += skipped;
+        this.invalid += invalid;
+        this.rejected += rejected;
+        this.read += imported + skipped + invalid + rejected;
+    }
+
+}
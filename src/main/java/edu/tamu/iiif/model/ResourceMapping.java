@@ -0,0 +1,37 @@
+package edu.tamu.iiif.model;
+
+/**
+ * Resolver id and URL of a resource, one line of a mapping snapshot or export.
+ */
+public class ResourceMapping {
+
+    private String id;
+
+    private String url;
+
+    public ResourceMapping() {
+
+    }
+
+    public ResourceMapping(String id, String url) {
+        this.id = id;
+        this.url = url;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+}
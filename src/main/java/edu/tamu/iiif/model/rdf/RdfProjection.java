@@ -0,0 +1,86 @@
+package edu.tamu.iiif.model.rdf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * The predicates, by URI or namespace prefix, a manifest generation reads from fetched RDF. Parsing
+ * through {@link #project(StreamRDF)} drops every other triple before it reaches the model.
+ */
+public class RdfProjection {
+
+    private final Set<String> predicates;
+
+    private final List<String> prefixes;
+
+    private final String key;
+
+    private RdfProjection(Set<String> predicates, List<String> prefixes) {
+        this.predicates = predicates;
+        this.prefixes = prefixes;
+        // URIs contain neither spaces nor bars, so the key is unambiguous
+        this.key = String.join(" ", new TreeSet<String>(predicates)) + " | " + String.join(" ", new TreeSet<String>(prefixes));
+    }
+
+    public boolean includes(Node predicate) {
+        if (!predicate.isURI()) {
+            return false;
+        }
+        String uri = predicate.getURI();
+        if (predicates.contains(uri)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (uri.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public StreamRDF project(StreamRDF destination) {
+        return new StreamRDFWrapper(destination) {
+
+            @Override
+            public void triple(Triple triple) {
+                if (includes(triple.getPredicate())) {
+                    super.triple(triple);
+                }
+            }
+
+            @Override
+            public void quad(Quad quad) {
+                if (includes(quad.getPredicate())) {
+                    super.quad(quad);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * The sorted predicates and prefixes themselves, models parsed with different projections must
+     * not be shared.
+     *
+     * @return
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public static RdfProjection of(Collection<String> predicates, Collection<String> prefixes) {
+        return new RdfProjection(Collections.unmodifiableSet(new HashSet<String>(predicates)), Collections.unmodifiableList(new ArrayList<String>(prefixes)));
+    }
+
+}
@@ -0,0 +1,9 @@
+package edu.tamu.iiif.model.repo;
+
+import org.springframework.data.repository.CrudRepository;
+
+import edu.tamu.iiif.model.RedisImageInfo;
+
+public interface RedisImageInfoRepo extends CrudRepository<RedisImageInfo, String> {
+
+}
@@ -20,28 +20,32 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import javax.annotation.PostConstruct;
-
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.riot.RiotException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 
 import de.digitalcollections.iiif.presentation.model.api.v2.Canvas;
 import de.digitalcollections.iiif.presentation.model.api.v2.Image;
@@ -51,7 +55,6 @@ import de.digitalcollections.iiif.presentation.model.api.v2.PropertyValue;
 import de.digitalcollections.iiif.presentation.model.api.v2.Sequence;
 import de.digitalcollections.iiif.presentation.model.api.v2.Service;
 import de.digitalcollections.iiif.presentation.model.api.v2.Thumbnail;
-import de.digitalcollections.iiif.presentation.model.impl.jackson.v2.IiifPresentationApiObjectMapper;
 import de.digitalcollections.iiif.presentation.model.impl.v2.CanvasImpl;
 import de.digitalcollections.iiif.presentation.model.impl.v2.ImageImpl;
 import de.digitalcollections.iiif.presentation.model.impl.v2.ImageResourceImpl;
@@ -62,11 +65,16 @@ import de.digitalcollections.iiif.presentation.model.impl.v2.ThumbnailImpl;
 import edu.tamu.iiif.config.model.AbstractIiifConfig;
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.HeadMetadata;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestResult;
+import edu.tamu.iiif.model.ManifestValidators;
 import edu.tamu.iiif.model.OptionalImageResourceWithInfo;
 import edu.tamu.iiif.model.OptionalImageWithInfo;
 import edu.tamu.iiif.model.RedisManifest;
+import edu.tamu.iiif.model.rdf.RdfProjection;
 import edu.tamu.iiif.model.rdf.RdfResource;
-import edu.tamu.iiif.model.repo.RedisManifestRepo;
+import edu.tamu.iiif.service.ManifestRefresher.Refresh;
 
 public abstract class AbstractManifestService implements ManifestService {
 
@@ -89,8 +97,6 @@ public abstract class AbstractManifestService implements ManifestService {
 
     private final static String CONTEXT_LABEL = "context";
 
-    protected final static ObjectMapper mapper = new IiifPresentationApiObjectMapper();
-
     @Value("${iiif.service.url}")
     protected String iiifServiceUrl;
 
@@ -100,6 +106,9 @@ public abstract class AbstractManifestService implements ManifestService {
     @Value("${iiif.logo.url}")
     protected String logoUrl;
 
+    @Value("${iiif.service.rdf-projection:true}")
+    protected boolean projectRdf;
+
     @Autowired
     protected RestTemplate restTemplate;
 
@@ -107,41 +116,66 @@ public abstract class AbstractManifestService implements ManifestService {
     private ObjectMapper objectMapper;
 
     @Autowired
-    private RedisManifestRepo redisManifestRepo;
+    private RedisManifestStore redisManifestStore;
 
     @Autowired
     private ResourceResolver resourceResolver;
 
-    @PostConstruct
-    protected void init() {
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    @Autowired
+    private GenerationTaskExecutor generationTaskExecutor;
 
-        // This deprecated use cannot be removed until IiifPresentationApiObjectMapper() exposes builder().
-        mapper.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY);
-    }
+    @Autowired
+    private RdfDocumentCache rdfDocumentCache;
+
+    @Autowired
+    private ImageInfoCache imageInfoCache;
+
+    @Autowired
+    private HeadMetadataCache headMetadataCache;
+
+    @Autowired
+    private GenerationCoalescer generationCoalescer;
+
+    @Autowired
+    private GenerationLease generationLease;
+
+    @Autowired
+    private ManifestRefresher manifestRefresher;
+
+    @Autowired
+    private ManifestBodyWriter manifestBodyWriter;
 
     public String getManifest(ManifestRequest request) throws IOException, URISyntaxException {
+        return getManifestResult(request).getJson();
+    }
+
+    public ManifestResult getManifestResult(ManifestRequest request) throws IOException, URISyntaxException {
         String path = request.getContext();
         boolean update = request.isUpdate();
-        String manifest;
+        ManifestResult manifest;
         Optional<RedisManifest> optionalRedisManifest = getRedisManifest(request);
+        Optional<ManifestBody> optionalBody = optionalRedisManifest.isPresent() ? redisManifestStore.findBody(optionalRedisManifest.get()) : Optional.empty();
+        Supplier<RedisManifest> toRedisManifest = () -> new RedisManifest(encode(path), getManifestType(), getRepository(), request.getAllowed(), request.getDisallowed(), null);
 
-        if (optionalRedisManifest.isPresent()) {
+        if (optionalBody.isPresent()) {
             logger.info("Manifest already in redis: " + optionalRedisManifest.get().getId() + " (" + optionalRedisManifest.get().getCreation() + ")");
-            manifest = optionalRedisManifest.get().getJson();
+            manifest = ManifestResult.of(optionalRedisManifest.get(), optionalBody.get(), false);
         } else {
             logger.info("Generating new manifest.");
-            manifest = generateManifest(request);
-            redisManifestRepo.save(new RedisManifest(encode(path), getManifestType(), getRepository(), request.getAllowed(), request.getDisallowed(), manifest));
+            manifest = ManifestResult.of(generateAndStore(request, toRedisManifest), false);
             update = false;
         }
 
         if (update) {
-            RedisManifest redisManifest = optionalRedisManifest.get();
-            manifest = generateManifest(request);
-            redisManifest.setJson(manifest);
-            redisManifestRepo.save(redisManifest);
-            logger.info("Manifest update requested: " + path);
+            if (manifestRefresher.isEnabled()) {
+                Refresh refresh = manifestRefresher.refresh(getManifestKey(request), request.isForced(), () -> generateAndStore(request, toRedisManifest));
+                boolean stale = refresh == Refresh.SCHEDULED || refresh == Refresh.IN_PROGRESS;
+                manifest = ManifestResult.of(optionalRedisManifest.get(), optionalBody.get(), stale);
+                logger.info("Manifest update requested: " + path + " (" + refresh + ")");
+            } else {
+                manifest = ManifestResult.of(generateAndStore(request, toRedisManifest), false);
+                logger.info("Manifest update requested: " + path);
+            }
         } else {
             logger.info("Manifest requested: " + path);
         }
@@ -149,6 +183,66 @@ public abstract class AbstractManifestService implements ManifestService {
         return manifest;
     }
 
+    public Optional<ManifestValidators> getManifestValidators(ManifestRequest request) {
+        return getRedisManifest(request).map(ManifestValidators::of);
+    }
+
+    /**
+     * Generate and store the manifest, coalesced with concurrent generations of the same manifest in
+     * this instance and leased against other instances sharing the Redis.
+     */
+    private ManifestBody generateAndStore(ManifestRequest request, Supplier<RedisManifest> toRedisManifest) throws IOException, URISyntaxException {
+        String key = getManifestKey(request);
+        boolean fresh = request.isUpdate() || request.isForced();
+        return generationCoalescer.generate(key, fresh, () -> generationLease.generate(key, fresh, lease -> {
+            // created before reading the repository, fresh waiters elsewhere compare it to their arrival
+            RedisManifest redisManifest = toRedisManifest.get();
+            ManifestBody generated = generate(request);
+            redisManifestStore.save(redisManifest, generated, lease);
+            return generated;
+        }, createdSince -> loadManifest(request, createdSince)));
+    }
+
+    private Optional<ManifestBody> loadManifest(ManifestRequest request, long createdSince) {
+        try {
+            Optional<RedisManifest> optionalRedisManifest = getRedisManifest(request).filter(manifest -> createdSince <= 0 || (manifest.getCreation() != null && manifest.getCreation() >= createdSince));
+            if (optionalRedisManifest.isPresent()) {
+                return redisManifestStore.findBody(optionalRedisManifest.get());
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to load stored manifest {}: {}", request.getContext(), e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Generate the manifest body as sent to clients, JSON escapes of the serialized manifest are undone
+     * while writing it instead of on every response.
+     */
+    private ManifestBody generate(ManifestRequest request) throws IOException, URISyntaxException {
+        // updates and repository changes must not be generated from RDF cached before the change, nor
+        // repository changes from image info cached before it
+        try (RdfFetchContext context = RdfFetchContext.open(request.isUpdate() || request.isForced(), request.isForced())) {
+            ManifestBody manifest = generateManifest(request);
+            // resolver ids written behind must be stored before the manifest referring to them
+            try {
+                resourceResolver.flush(context.getResourceIds());
+            } catch (DataAccessException e) {
+                throw new IOException(String.format("Unable to store resolver ids of %s manifest for %s", getManifestType().getName(), request.getContext()), e);
+            }
+            logger.info("Generated {} {} manifest for {}: {} RDF documents fetched, {} duplicate fetches avoided", getRepository(), getManifestType().getName(), request.getContext(), context.getFetches(), context.getDuplicates());
+            return manifest;
+        }
+    }
+
+    protected <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException, URISyntaxException {
+        return generationTaskExecutor.invokeAll(tasks);
+    }
+
+    protected <T> GenerationTaskExecutor.GenerationBatch<T> generationBatch() {
+        return generationTaskExecutor.batch();
+    }
+
     protected RdfResource getRdfResourceByContextPath(String contextPath) throws NotFoundException {
         String rdfUrl = getRdfUrl(contextPath);
         Model model = getRdfModel(rdfUrl);
@@ -167,27 +261,90 @@ public abstract class AbstractManifestService implements ManifestService {
     }
 
     protected Model getRdfModel(String url) throws NotFoundException {
-        return createRdfModel(getRdf(url));
+        Optional<RdfFetchContext> context = RdfFetchContext.current();
+        if (context.isPresent()) {
+            return context.get().getModel(url, this::fetchRdfModel);
+        }
+        return fetchRdfModel(url);
+    }
+
+    private Model fetchRdfModel(String url) throws NotFoundException {
+        boolean revalidate = RdfFetchContext.current().map(RdfFetchContext::isRevalidate).orElse(false);
+        return rdfDocumentCache.getModel(URLDecoder.decode(url, StandardCharsets.UTF_8), getRdfProjection(), revalidate, this::getRdf);
     }
 
-    protected String getRdf(String url) throws NotFoundException {
+    protected ResponseEntity<Model> getRdf(String url, HttpHeaders headers) throws NotFoundException {
+        return requestRdf(url, headers);
+    }
+
+    /**
+     * Request RDF and parse the response body as it streams in, in the language of its content type.
+     * Unless given, the Accept header is the repository's configured RDF media type preference.
+     *
+     * @param url
+     * @param headers
+     * @return response with the parsed model, or status 304 and no model when not modified
+     * @throws NotFoundException
+     */
+    protected ResponseEntity<Model> requestRdf(String url, HttpHeaders headers) throws NotFoundException {
         try {
-            url = URLDecoder.decode(url, StandardCharsets.UTF_8);
             if (logger.isDebugEnabled()) {
                 logger.info("Requesting RDF for {}", url);
             }
-            Optional<String> rdf = Optional.ofNullable(restTemplate.getForObject(url, String.class));
-            if (rdf.isPresent()) {
-                logger.debug("RDF for {}: \n{}\n", url, rdf.get());
-                return rdf.get();
+            Optional<ResponseEntity<Model>> response = Optional.ofNullable(restTemplate.execute(url, HttpMethod.GET, request -> {
+                request.getHeaders().addAll(headers);
+                if (request.getHeaders().getAccept().isEmpty() && !getConfig().getRdfAccept().isEmpty()) {
+                    request.getHeaders().set(HttpHeaders.ACCEPT, String.join(", ", getConfig().getRdfAccept()));
+                }
+            }, this::extractRdf));
+            if (response.isPresent()) {
+                return response.get();
             }
-        } catch (RestClientException e) {
+        } catch (RestClientException | RiotException e) {
             logger.error("Failed to get RDF for {}: {}", url, e.getMessage());
             logger.debug("Error while requesting RDF for {}: {}", url, e.getMessage(), e);
         }
         throw new NotFoundException("RDF not found! " + url);
     }
 
+    private ResponseEntity<Model> extractRdf(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return new ResponseEntity<Model>(headers, response.getStatusCode());
+        }
+        Model model = createRdfModel(response.getBody(), Optional.ofNullable(headers.getContentType()), getRdfProjection());
+        return new ResponseEntity<Model>(model, headers, response.getStatusCode());
+    }
+
+    /**
+     * The predicates kept when parsing fetched RDF, the configured label, description, attribution and
+     * license predicates, the metadata prefixes and what {@link #getProjectedPredicates()} adds.
+     *
+     * @return empty when projection is disabled and every triple is kept
+     */
+    protected Optional<RdfProjection> getRdfProjection() {
+        if (!projectRdf) {
+            return Optional.empty();
+        }
+        AbstractIiifConfig config = getConfig();
+        List<String> predicates = new ArrayList<String>(getProjectedPredicates());
+        predicates.addAll(config.getLabelPredicates());
+        predicates.addAll(config.getDescriptionPredicates());
+        predicates.addAll(config.getAttributionPredicates());
+        predicates.addAll(config.getLicensePrecedence());
+        return Optional.of(RdfProjection.of(predicates, config.getMetadataPrefixes()));
+    }
+
+    /**
+     * Predicates the repository needs to traverse its RDF for this manifest type.
+     *
+     * @return
+     */
+    protected List<String> getProjectedPredicates() {
+        return Collections.emptyList();
+    }
+
     protected URI buildId(String path) throws URISyntaxException {
         return new URI(encodeSpaces(getIiifServiceUrl() + FORWARD_SLASH + getManifestType().getName() + FORWARD_SLASH + path));
     }
@@ -220,7 +377,7 @@ public abstract class AbstractManifestService implements ManifestService {
             logger.info("Including: " + url);
             URI infoUri = getImageInfoUri(url);
 
-            Optional<JsonNode> imageInfoNode = getImageInfo(infoUri.toString());
+            Optional<JsonNode> imageInfoNode = getImageInfo(getResourceId(url), infoUri.toString());
             if (imageInfoNode.isPresent()) {
                 ImageResource imageResource = new ImageResourceImpl(getImageFullUri(url));
 
@@ -284,6 +441,14 @@ public abstract class AbstractManifestService implements ManifestService {
         return include;
     }
 
+    protected ManifestBody writeManifest(Object manifest) throws IOException {
+        return manifestBodyWriter.write(manifest);
+    }
+
+    protected ManifestBody writeJson(String json) throws IOException {
+        return manifestBodyWriter.writeJson(json);
+    }
+
     protected String fetchImageInfo(String url) throws NotFoundException {
         logger.debug("Fetching image info {}", url);
         Optional<String> imageInfo = Optional.ofNullable(restTemplate.getForObject(url, String.class));
@@ -365,13 +530,41 @@ public abstract class AbstractManifestService implements ManifestService {
         return canvasPage;
     }
 
+    /**
+     * Resolve the ids of the included images among the URLs with one resolver call, images generated
+     * afterwards in the same generation take their id from the fetch context. Whether an URL is
+     * included is checked concurrently, the HEAD requests are cached for the canvases.
+     *
+     * @param request
+     * @param urls
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    protected void resolveResourceIds(ManifestRequest request, List<String> urls) throws IOException, URISyntaxException {
+        Optional<RdfFetchContext> context = RdfFetchContext.current();
+        if (!context.isPresent() || urls.isEmpty()) {
+            return;
+        }
+        List<Callable<Optional<String>>> tasks = new ArrayList<Callable<Optional<String>>>();
+        for (String url : urls) {
+            tasks.add(() -> includeResourceWithUrl(request, url) ? Optional.of(url) : Optional.empty());
+        }
+        List<String> included = invokeAll(tasks).stream().filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+        if (!included.isEmpty()) {
+            context.get().putResourceIds(resourceResolver.lookupOrCreateAll(included));
+        }
+    }
+
     private String getResourceId(String url) throws URISyntaxException {
-        String id;
-        try {
-            id = resourceResolver.lookup(url);
-        } catch (NotFoundException e) {
-            id = resourceResolver.create(url);
+        Optional<RdfFetchContext> context = RdfFetchContext.current();
+        if (context.isPresent()) {
+            Optional<String> id = context.get().getResourceId(url);
+            if (id.isPresent()) {
+                return id.get();
+            }
         }
+        String id = resourceResolver.lookupOrCreate(url);
+        context.ifPresent(current -> current.putResourceId(url, id));
         return id;
     }
 
@@ -420,7 +613,7 @@ public abstract class AbstractManifestService implements ManifestService {
 
     protected abstract String getMatcherHandle(String url);
 
-    protected abstract String generateManifest(ManifestRequest request) throws URISyntaxException, IOException;
+    protected abstract ManifestBody generateManifest(ManifestRequest request) throws URISyntaxException, IOException;
 
     protected abstract String getIiifServiceUrl();
 
@@ -442,8 +635,12 @@ public abstract class AbstractManifestService implements ManifestService {
         return service;
     }
 
+    private String getManifestKey(ManifestRequest request) {
+        return RedisManifestStore.key(encode(request.getContext()), getManifestType(), getRepository(), request.getAllowed(), request.getDisallowed());
+    }
+
     private Optional<RedisManifest> getRedisManifest(ManifestRequest request) {
-        return redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(encode(request.getContext()), getManifestType(), getRepository(), request.getAllowed(), request.getDisallowed());
+        return redisManifestStore.find(encode(request.getContext()), getManifestType(), getRepository(), request.getAllowed(), request.getDisallowed());
     }
 
     private Collection<Metadata> getMetadata(RdfResource rdfResource, String prefix) {
@@ -492,11 +689,20 @@ public abstract class AbstractManifestService implements ManifestService {
         return buildMetadata(predicate.getLocalName(), object.toString());
     }
 
-    protected Optional<JsonNode> getImageInfo(String url) {
+    protected Optional<JsonNode> getImageInfo(String resourceId, String url) {
         logger.debug("INFO YO " + url);
+        if (RdfFetchContext.current().map(RdfFetchContext::isRefreshImageInfo).orElse(false)) {
+            imageInfoCache.evict(resourceId);
+        } else {
+            Optional<JsonNode> cached = imageInfoCache.get(resourceId);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
         Optional<JsonNode> imageInfoNode = Optional.empty();
         try {
             imageInfoNode = Optional.of(objectMapper.readTree(fetchImageInfo(url)));
+            imageInfoCache.put(resourceId, imageInfoNode.get());
         } catch (IOException e) {
             logger.info("Unable to get image info: " + url);
             logger.warn(e.getMessage());
@@ -505,12 +711,15 @@ public abstract class AbstractManifestService implements ManifestService {
     }
 
     protected Optional<String> getMimeType(String url) {
-        try {
-            HttpHeaders headers = restTemplate.headForHeaders(url);
-            return Optional.ofNullable(headers.getFirst(HttpHeaders.CONTENT_TYPE));
-        } catch (RestClientException e) {
-            return Optional.empty();
-        }
+        return getHeadMetadata(url).getContentType();
+    }
+
+    protected HeadMetadata getHeadMetadata(String url) {
+        return headMetadataCache.get(url, this::head);
+    }
+
+    protected HttpHeaders head(String url) {
+        return restTemplate.headForHeaders(url);
     }
 
 
@@ -1,21 +1,46 @@
 package edu.tamu.iiif.service;
 
+import static edu.tamu.iiif.config.model.ConnectionPoolConfig.DEFAULT_POOL;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateCustomizer;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import edu.tamu.iiif.config.model.ConnectionPoolConfig;
+import edu.tamu.iiif.config.model.ConnectionPoolConfig.PoolProfile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One pooled HTTP client per connection pool profile, requests are routed to the pool of their
+ * target host so traffic to one upstream, e.g. the image server, cannot lease the connections another
+ * upstream needs. Pool stats are published as iiif.http.pool.* gauges tagged with the pool name.
+ */
 @Component
 public class CustomRestTemplateCustomizer implements RestTemplateCustomizer {
 
+    private final static Logger logger = LoggerFactory.getLogger(CustomRestTemplateCustomizer.class);
+
     @Value("${iiif.service.connection.timeout:60000}")
     private int connectionTimeout;
 
@@ -28,13 +53,96 @@ public class CustomRestTemplateCustomizer implements RestTemplateCustomizer {
     @Value("${iiif.service.socket.timeout:60000}")
     private int socketTimeout;
 
+    @Autowired
+    private ConnectionPoolConfig connectionPoolConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, HttpComponentsClientHttpRequestFactory> factories = new LinkedHashMap<String, HttpComponentsClientHttpRequestFactory>();
+
+    private final Map<String, String> hostPools = new HashMap<String, String>();
+
+    @PostConstruct
+    public void createPools() {
+        Map<String, PoolProfile> profiles = new LinkedHashMap<String, PoolProfile>(connectionPoolConfig.getPools());
+        profiles.putIfAbsent(DEFAULT_POOL, new PoolProfile());
+        RequestConfig config = RequestConfig.custom().setConnectTimeout(connectionTimeout).setConnectionRequestTimeout(connectionRequestTimeout).setSocketTimeout(socketTimeout).build();
+        profiles.forEach((name, profile) -> {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(connectionTimeToLive, TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(profile.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(profile.getMaxPerRoute());
+            connectionManager.setValidateAfterInactivity(profile.getValidateAfterInactivity());
+            // @formatter:off
+            CloseableHttpClient httpClient = HttpClients.custom()
+                .setRedirectStrategy(new CustomRedirectStrategy())
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy(profile.getKeepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(profile.getKeepAlive(), TimeUnit.MILLISECONDS)
+                .setDefaultRequestConfig(config)
+                .build();
+            // @formatter:on
+            factories.put(name, new HttpComponentsClientHttpRequestFactory(httpClient));
+            profile.getHosts().forEach(host -> hostPools.put(host.toLowerCase(), name));
+            registerGauges(name, connectionManager);
+            logger.info("Connection pool {}: {} per route, {} total, hosts {}", name, profile.getMaxPerRoute(), profile.getMaxTotal(), profile.getHosts());
+        });
+    }
+
     @Override
     public void customize(RestTemplate restTemplate) {
-        RequestConfig config = RequestConfig.custom().setConnectTimeout(connectionTimeout).setConnectionRequestTimeout(connectionRequestTimeout).setSocketTimeout(socketTimeout).build();
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-        CloseableHttpClient httpClient = HttpClients.custom().setRedirectStrategy(new CustomRedirectStrategy()).setConnectionManager(connectionManager).setConnectionTimeToLive(connectionTimeToLive, TimeUnit.MILLISECONDS).setDefaultRequestConfig(config).build();
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        restTemplate.setRequestFactory(new BufferingClientHttpRequestFactory(factory));
+        // not buffered so RDF responses can be parsed as they stream in
+        restTemplate.setRequestFactory((uri, httpMethod) -> factories.get(getPool(uri)).createRequest(uri, httpMethod));
+    }
+
+    public String getPool(URI uri) {
+        if (uri.getHost() == null) {
+            return DEFAULT_POOL;
+        }
+        String host = uri.getHost().toLowerCase();
+        // URLs without a port match hosts listed with the default port of their scheme
+        int port = uri.getPort() < 0 ? defaultPort(uri.getScheme()) : uri.getPort();
+        String pool = port < 0 ? null : hostPools.get(host + ":" + port);
+        if (pool == null) {
+            pool = hostPools.getOrDefault(host, DEFAULT_POOL);
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void closePools() {
+        for (HttpComponentsClientHttpRequestFactory factory : factories.values()) {
+            try {
+                factory.destroy();
+            } catch (Exception e) {
+                logger.warn("Unable to close connection pool: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void registerGauges(String name, PoolingHttpClientConnectionManager connectionManager) {
+        Gauge.builder("iiif.http.pool.leased", connectionManager, manager -> manager.getTotalStats().getLeased()).tag("pool", name).description("HTTP connections in use").register(meterRegistry);
+        Gauge.builder("iiif.http.pool.pending", connectionManager, manager -> manager.getTotalStats().getPending()).tag("pool", name).description("Requests waiting for an HTTP connection").register(meterRegistry);
+        Gauge.builder("iiif.http.pool.available", connectionManager, manager -> manager.getTotalStats().getAvailable()).tag("pool", name).description("Idle pooled HTTP connections").register(meterRegistry);
+        Gauge.builder("iiif.http.pool.max", connectionManager, manager -> manager.getTotalStats().getMax()).tag("pool", name).description("Maximum HTTP connections of the pool").register(meterRegistry);
+    }
+
+    private static int defaultPort(String scheme) {
+        if ("https".equalsIgnoreCase(scheme)) {
+            return 443;
+        }
+        if ("http".equalsIgnoreCase(scheme)) {
+            return 80;
+        }
+        return -1;
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAlive) {
+        return (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+        };
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+package edu.tamu.iiif.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.tamu.iiif.model.ManifestBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Coalesces concurrent generations of the same manifest within this instance. The first caller for a
+ * key generates, callers arriving while it runs wait for and return the same result. A failure is
+ * passed to every waiter of that generation but not remembered, the next caller generates again.
+ *
+ * Fresh callers, i.e. updates and repository changes, only share a generation started after they
+ * arrived, as an earlier one may have read the repository before the change. They wait for an earlier
+ * generation to end and generate once more. Waiting is bounded, a caller still waiting at the timeout
+ * generates without coalescing.
+ */
+@Service
+public class GenerationCoalescer {
+
+    private final static Logger logger = LoggerFactory.getLogger(GenerationCoalescer.class);
+
+    private final static String METRIC = "iiif.manifest.generation";
+
+    private final Map<String, Generation> generations = new ConcurrentHashMap<String, Generation>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final long waitTimeout;
+
+    private final Counter coalesced;
+
+    private final Counter rerun;
+
+    private final Counter timedOut;
+
+    // @formatter:off
+    public GenerationCoalescer(
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.generation.wait-timeout:600000}") long waitTimeout
+    ) {
+    // @formatter:on
+        this.waitTimeout = waitTimeout;
+        this.coalesced = meterRegistry.counter(METRIC + ".coalesced");
+        this.rerun = meterRegistry.counter(METRIC + ".rerun");
+        this.timedOut = meterRegistry.counter(METRIC + ".wait-timeout");
+        meterRegistry.gauge(METRIC + ".waiting", waiting);
+        meterRegistry.gaugeMapSize(METRIC + ".in-flight", Tags.empty(), generations);
+    }
+
+    /**
+     * Generate the manifest of the given key or wait for a generation of it in progress.
+     *
+     * @param key
+     *            manifest key
+     * @param fresh
+     *            whether only a generation started after this call may be shared
+     * @param generator
+     * @return
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    public ManifestBody generate(String key, boolean fresh, ManifestGenerator generator) throws IOException, URISyntaxException {
+        long arrived = sequence.get();
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        while (true) {
+            Generation created = new Generation(sequence.incrementAndGet());
+            Generation existing = generations.putIfAbsent(key, created);
+            if (existing == null) {
+                return generate(key, created, generator);
+            }
+            if (!fresh || existing.started > arrived) {
+                coalesced.increment();
+                logger.debug("Waiting for generation in progress of {}", key);
+                Optional<ManifestBody> manifest = await(existing, deadline);
+                if (manifest.isPresent()) {
+                    return manifest.get();
+                }
+            } else {
+                rerun.increment();
+                logger.debug("Waiting for earlier generation of {} to generate again", key);
+                if (awaitEnd(existing, deadline)) {
+                    continue;
+                }
+            }
+            timedOut.increment();
+            logger.warn("Timed out waiting for generation in progress of {}, generating without coalescing", key);
+            return generator.generate();
+        }
+    }
+
+    public int getInFlight() {
+        return generations.size();
+    }
+
+    private ManifestBody generate(String key, Generation created, ManifestGenerator generator) throws IOException, URISyntaxException {
+        try {
+            ManifestBody manifest = generator.generate();
+            created.result.complete(manifest);
+            return manifest;
+        } catch (IOException | URISyntaxException | RuntimeException | Error e) {
+            created.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            generations.remove(key, created);
+        }
+    }
+
+    /**
+     * Result of the generation, empty if it did not end before the deadline.
+     */
+    private Optional<ManifestBody> await(Generation generation, long deadline) throws IOException, URISyntaxException {
+        waiting.incrementAndGet();
+        try {
+            return Optional.of(generation.result.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for generation!", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for the generation to end whatever its outcome, whether it ended before the deadline.
+     */
+    private boolean awaitEnd(Generation generation, long deadline) throws IOException {
+        waiting.incrementAndGet();
+        try {
+            generation.result.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for generation!", e);
+        } catch (ExecutionException e) {
+            // its failure is not ours, generate again
+        } finally {
+            waiting.decrementAndGet();
+        }
+        return true;
+    }
+
+    private static class Generation {
+
+        private final long started;
+
+        private final CompletableFuture<ManifestBody> result = new CompletableFuture<ManifestBody>();
+
+        private Generation(long started) {
+            this.started = started;
+        }
+
+    }
+
+    @FunctionalInterface
+    public interface ManifestGenerator {
+
+        public ManifestBody generate() throws IOException, URISyntaxException;
+
+    }
+
+}
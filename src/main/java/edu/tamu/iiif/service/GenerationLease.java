@@ -0,0 +1,310 @@
+package edu.tamu.iiif.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import edu.tamu.iiif.model.ManifestBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cluster wide lease around manifest generation so only one instance sharing the Redis builds a given
+ * manifest at a time.
+ *
+ * The lease is a key set with NX and a short PX expiry holding a fencing token from a Redis counter.
+ * While generating the holder renews the expiry, if the instance dies the lease simply expires. The
+ * cached manifest is only written while the token still holds the lease, see
+ * {@link RedisManifestStore#save(edu.tamu.iiif.model.RedisManifest, ManifestBody, Lease)}. Instances that lose the
+ * race poll until the lease is gone and return what the winner stored, taking the lease themselves
+ * when nothing was stored. Fresh waiters, i.e. updates and repository changes, only return a manifest
+ * whose generation started after they arrived, otherwise they take the lease and generate again.
+ *
+ * Background tasks which must not run on several instances at once take a lease the same way and are
+ * skipped by the instances losing the race.
+ */
+@Service
+public class GenerationLease {
+
+    private final static Logger logger = LoggerFactory.getLogger(GenerationLease.class);
+
+    public final static String LEASE_PREFIX = "iiif-lease:";
+
+    private final static String TOKEN_KEY = LEASE_PREFIX + "token";
+
+    private final static String METRIC = "iiif.manifest.generation.lease";
+
+    // @formatter:off
+    private final static RedisScript<Long> RENEW = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+        Long.class
+    );
+
+    private final static RedisScript<Long> RELEASE = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class
+    );
+    // @formatter:on
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final long ttl;
+
+    private final long pollInterval;
+
+    private final long waitTimeout;
+
+    private final ScheduledExecutorService renewals;
+
+    private final Counter acquired;
+
+    private final Counter waited;
+
+    private final Counter timedOut;
+
+    // @formatter:off
+    public GenerationLease(
+        StringRedisTemplate redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.generation-lease.enabled:true}") boolean enabled,
+        @Value("${iiif.service.generation-lease.ttl:30000}") long ttl,
+        @Value("${iiif.service.generation-lease.poll-interval:500}") long pollInterval,
+        @Value("${iiif.service.generation-lease.wait-timeout:600000}") long waitTimeout
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.ttl = Math.max(1000, ttl);
+        this.pollInterval = Math.max(10, pollInterval);
+        this.waitTimeout = waitTimeout;
+        this.renewals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "iiif-generation-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acquired = meterRegistry.counter(METRIC, "result", "acquired");
+        this.waited = meterRegistry.counter(METRIC, "result", "waited");
+        this.timedOut = meterRegistry.counter(METRIC, "result", "timeout");
+    }
+
+    /**
+     * Generate under the lease of the given manifest key, or wait for the instance holding it.
+     *
+     * @param key
+     *            manifest key
+     * @param fresh
+     *            whether only a manifest generated after this call may be returned
+     * @param generator
+     *            generates and stores the manifest while holding the lease
+     * @param loader
+     *            loads what another instance stored once its lease is gone
+     * @return
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    public ManifestBody generate(String key, boolean fresh, LeasedGenerator generator, ManifestLoader loader) throws IOException, URISyntaxException {
+        if (!enabled) {
+            return generator.generate(Lease.NONE);
+        }
+        long arrived = System.currentTimeMillis();
+        long deadline = arrived + waitTimeout;
+        while (true) {
+            Optional<Lease> lease = acquire(key);
+            if (lease.isPresent()) {
+                return generate(lease.get(), generator);
+            }
+            waited.increment();
+            logger.debug("Waiting for another instance generating {}", key);
+            if (!awaitRelease(key, deadline)) {
+                timedOut.increment();
+                logger.warn("Timed out waiting for another instance generating {}, generating without lease", key);
+                return generator.generate(Lease.NONE);
+            }
+            Optional<ManifestBody> manifest = loader.load(fresh ? arrived : 0);
+            if (manifest.isPresent()) {
+                return manifest.get();
+            }
+        }
+    }
+
+    /**
+     * Run the task under the lease of the given key unless another instance holds it.
+     *
+     * @param key
+     *            task key
+     * @param task
+     * @return whether the task was run
+     */
+    public boolean runExclusively(String key, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+        Optional<Lease> lease = acquire(key);
+        if (!lease.isPresent()) {
+            return false;
+        }
+        ScheduledFuture<?> renewal = renewing(lease.get());
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(lease.get(), renewal);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewals.shutdownNow();
+    }
+
+    private Optional<Lease> acquire(String key) {
+        String leaseKey = LEASE_PREFIX + key;
+        try {
+            long token = redisTemplate.opsForValue().increment(TOKEN_KEY);
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, String.valueOf(token), ttl, TimeUnit.MILLISECONDS))) {
+                acquired.increment();
+                return Optional.of(new Lease(leaseKey, token));
+            }
+            return Optional.empty();
+        } catch (DataAccessException e) {
+            logger.warn("Unable to acquire generation lease for {}: {}", key, e.getMessage());
+            return Optional.of(Lease.NONE);
+        }
+    }
+
+    private ManifestBody generate(Lease lease, LeasedGenerator generator) throws IOException, URISyntaxException {
+        ScheduledFuture<?> renewal = renewing(lease);
+        try {
+            return generator.generate(lease);
+        } finally {
+            release(lease, renewal);
+        }
+    }
+
+    /**
+     * Renew the lease while held, nothing to renew without a lease.
+     */
+    private ScheduledFuture<?> renewing(Lease lease) {
+        if (!lease.isFenced()) {
+            return null;
+        }
+        long period = ttl / 3;
+        return renewals.scheduleAtFixedRate(() -> renew(lease), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void release(Lease lease, ScheduledFuture<?> renewal) {
+        if (renewal != null) {
+            renewal.cancel(false);
+            release(lease);
+        }
+    }
+
+    private void renew(Lease lease) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW, Collections.singletonList(lease.getKey()), String.valueOf(lease.getToken()), String.valueOf(ttl));
+            if (renewed == null || renewed == 0) {
+                logger.warn("Generation lease {} with token {} was lost", lease.getKey(), lease.getToken());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Unable to renew generation lease {}: {}", lease.getKey(), e.getMessage());
+        }
+    }
+
+    private void release(Lease lease) {
+        try {
+            redisTemplate.execute(RELEASE, Collections.singletonList(lease.getKey()), String.valueOf(lease.getToken()));
+        } catch (DataAccessException e) {
+            logger.warn("Unable to release generation lease {}, it will expire: {}", lease.getKey(), e.getMessage());
+        }
+    }
+
+    private boolean awaitRelease(String key, long deadline) throws IOException {
+        String leaseKey = LEASE_PREFIX + key;
+        try {
+            while (Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey))) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(pollInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for generation!", e);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to check generation lease for {}: {}", key, e.getMessage());
+        }
+        return true;
+    }
+
+    public static class Lease {
+
+        public final static Lease NONE = new Lease(null, 0);
+
+        private final String key;
+
+        private final long token;
+
+        Lease(String key, long token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getToken() {
+            return token;
+        }
+
+        /**
+         * Whether writes have to be fenced by this lease, false when generating without a lease.
+         *
+         * @return
+         */
+        public boolean isFenced() {
+            return key != null;
+        }
+
+    }
+
+    @FunctionalInterface
+    public interface LeasedGenerator {
+
+        public ManifestBody generate(Lease lease) throws IOException, URISyntaxException;
+
+    }
+
+    @FunctionalInterface
+    public interface ManifestLoader {
+
+        /**
+         * Stored manifest, only if its generation started at or after the given time.
+         *
+         * @param createdSince
+         *            epoch milliseconds, 0 for any stored manifest
+         * @return
+         */
+        public Optional<ManifestBody> load(long createdSince);
+
+    }
+
+}
@@ -0,0 +1,241 @@
+package edu.tamu.iiif.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded fan-out of manifest generation tasks, e.g. one canvas per bitstream.
+ *
+ * Results are returned in task order. Concurrency is limited per batch and globally across all
+ * generations so that upstream repositories and the image server are not flooded. Tasks submitted
+ * from a generation worker thread run inline to avoid nested fan-out starving the global permits.
+ * The submitting thread's {@link RdfFetchContext} is carried over to the worker running the task.
+ */
+@Service
+public class GenerationTaskExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(GenerationTaskExecutor.class);
+
+    private final static ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> false);
+
+    private final int requestConcurrency;
+
+    private final Semaphore globalPermits;
+
+    private final ExecutorService executor;
+
+    public GenerationTaskExecutor(@Value("${iiif.service.generation.global-concurrency:16}") int globalConcurrency, @Value("${iiif.service.generation.request-concurrency:4}") int requestConcurrency) {
+        this(globalConcurrency, requestConcurrency, Executors.newCachedThreadPool(new GenerationThreadFactory()));
+    }
+
+    GenerationTaskExecutor(int globalConcurrency, int requestConcurrency, ExecutorService executor) {
+        this.requestConcurrency = Math.max(1, requestConcurrency);
+        this.globalPermits = new Semaphore(Math.max(1, globalConcurrency), true);
+        this.executor = executor;
+    }
+
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException, URISyntaxException {
+        GenerationBatch<T> batch = new GenerationBatch<T>(tasks.size() < 2);
+        for (Callable<T> task : tasks) {
+            batch.submit(task);
+        }
+        return batch.join();
+    }
+
+    /**
+     * Start a batch to which tasks can be submitted while the caller continues to work, e.g. walking
+     * an ordered proxy chain. Submitting blocks once the per request concurrency is in flight.
+     *
+     * @return
+     */
+    public <T> GenerationBatch<T> batch() {
+        return new GenerationBatch<T>(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException, URISyntaxException {
+        try {
+            return task.call();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) throws URISyntaxException {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof URISyntaxException) {
+            throw (URISyntaxException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        logger.debug("Generation task failed: {}", cause.getMessage(), cause);
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    public class GenerationBatch<T> {
+
+        private final boolean inline;
+
+        private final Semaphore requestPermits;
+
+        private final List<Future<T>> futures;
+
+        private GenerationBatch(boolean inline) {
+            this.inline = inline || requestConcurrency < 2 || WORKER.get();
+            this.requestPermits = new Semaphore(requestConcurrency);
+            this.futures = new ArrayList<Future<T>>();
+        }
+
+        public void submit(Callable<T> task) throws IOException, URISyntaxException {
+            if (inline) {
+                futures.add(CompletableFuture.completedFuture(call(task)));
+                return;
+            }
+            try {
+                requestPermits.acquire();
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while generating!", e);
+            }
+            try {
+                globalPermits.acquire();
+            } catch (InterruptedException e) {
+                requestPermits.release();
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while generating!", e);
+            }
+            Optional<RdfFetchContext> context = RdfFetchContext.current();
+            PermitTask permitTask = new PermitTask(() -> {
+                WORKER.set(true);
+                RdfFetchContext.attach(context);
+                try {
+                    return task.call();
+                } finally {
+                    RdfFetchContext.attach(Optional.empty());
+                    WORKER.remove();
+                }
+            });
+            try {
+                executor.execute(permitTask);
+                futures.add(permitTask);
+            } catch (RejectedExecutionException e) {
+                permitTask.release();
+                cancel();
+                throw e;
+            }
+        }
+
+        public List<T> join() throws IOException, URISyntaxException {
+            List<T> results = new ArrayList<T>(futures.size());
+            try {
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while generating!", e);
+            } catch (ExecutionException e) {
+                cancel();
+                throw unwrap(e);
+            }
+            return results;
+        }
+
+        public void cancel() {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        /**
+         * Task holding the permits taken for it until it ran, or until it was cancelled before it
+         * started, in which case its callable never runs.
+         */
+        private class PermitTask extends FutureTask<T> {
+
+            private final AtomicBoolean started = new AtomicBoolean();
+
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            private PermitTask(Callable<T> callable) {
+                super(callable);
+            }
+
+            @Override
+            public void run() {
+                started.set(true);
+                try {
+                    super.run();
+                } finally {
+                    release();
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (!started.get()) {
+                    release();
+                }
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    globalPermits.release();
+                    requestPermits.release();
+                }
+            }
+
+        }
+
+    }
+
+    private static class GenerationThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "iiif-generation-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package edu.tamu.iiif.service;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import edu.tamu.iiif.model.HeadMetadata;
+
+/**
+ * Issues at most one HEAD request per URL within the time to live and keeps Content-Type, Link, ETag
+ * and Last-Modified together, so mime type checks and Fedora binary detection share one request.
+ * Concurrent lookups of the same URL wait for the request in flight. URLs are cached decoded, so
+ * encoded and decoded forms of a URL share one request.
+ *
+ * Client errors are cached as empty metadata for the same time to live. Other failures, server errors
+ * and I/O errors, return empty metadata without caching it, the next lookup requests again.
+ */
+@Service
+public class HeadMetadataCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(HeadMetadataCache.class);
+
+    private final Cache<String, HeadMetadata> cache;
+
+    public HeadMetadataCache(@Value("${iiif.service.head-cache.ttl:60000}") long ttl, @Value("${iiif.service.head-cache.max-entries:100000}") long maxEntries) {
+        // @formatter:off
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(Math.max(0, ttl), TimeUnit.MILLISECONDS)
+            .maximumSize(Math.max(0, maxEntries))
+            .build();
+        // @formatter:on
+    }
+
+    public HeadMetadata get(String url, HeadRequester requester) {
+        try {
+            return cache.get(normalize(url), () -> head(url, requester));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            logger.warn("Unable to get HEAD metadata for {}: {}", url, e.getMessage());
+            return HeadMetadata.empty();
+        }
+    }
+
+    public void invalidate(String url) {
+        cache.invalidate(normalize(url));
+    }
+
+    private HeadMetadata head(String url, HeadRequester requester) {
+        try {
+            return HeadMetadata.of(requester.head(url));
+        } catch (HttpClientErrorException e) {
+            logger.debug("HEAD request failed for {}: {}", url, e.getMessage());
+            return HeadMetadata.empty();
+        }
+    }
+
+    private static String normalize(String url) {
+        try {
+            return URLDecoder.decode(url, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    @FunctionalInterface
+    public interface HeadRequester {
+
+        public HttpHeaders head(String url) throws RestClientException;
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package edu.tamu.iiif.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.tamu.iiif.model.RedisImageInfo;
+import edu.tamu.iiif.model.repo.RedisImageInfoRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the parts of an image server info.json a manifest needs, width, height and page_count, by
+ * resolver id. Lookups go to an in-process cache first and then to Redis, only a miss in both goes to
+ * the image server. Entries are removed explicitly when the binary behind the resolver id changes.
+ *
+ * Evictions are published on a Redis channel and the other instances drop their in-process entry
+ * as well. In-process entries expire after a while regardless should an eviction be missed while the
+ * subscription was down.
+ */
+@Service
+public class ImageInfoCache implements MessageListener {
+
+    private final static Logger logger = LoggerFactory.getLogger(ImageInfoCache.class);
+
+    private final static String WIDTH = "width";
+    private final static String HEIGHT = "height";
+    private final static String PAGE_COUNT = "page_count";
+
+    public final static String CHANNEL = "iiif-image-info-invalidation";
+
+    private final static String METRIC = "iiif.image.info.cache";
+
+    private final RedisImageInfoRepo redisImageInfoRepo;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String instance = UUID.randomUUID().toString();
+
+    private final Cache<String, RedisImageInfo> cache;
+
+    private final Counter localHits;
+
+    private final Counter redisHits;
+
+    private final Counter misses;
+
+    // @formatter:off
+    public ImageInfoCache(
+        RedisImageInfoRepo redisImageInfoRepo,
+        StringRedisTemplate redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.image-info-cache.max-entries:100000}") long maxEntries,
+        @Value("${iiif.service.image-info-cache.expire-after-write:3600000}") long expireAfterWrite
+    ) {
+    // @formatter:on
+        this.redisImageInfoRepo = redisImageInfoRepo;
+        this.redisTemplate = redisTemplate;
+        // @formatter:off
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(Math.max(0, maxEntries))
+            .expireAfterWrite(Math.max(1, expireAfterWrite), TimeUnit.MILLISECONDS)
+            .build();
+        // @formatter:on
+        this.localHits = meterRegistry.counter(METRIC, "result", "local-hit");
+        this.redisHits = meterRegistry.counter(METRIC, "result", "redis-hit");
+        this.misses = meterRegistry.counter(METRIC, "result", "miss");
+    }
+
+    public Optional<JsonNode> get(String id) {
+        Optional<RedisImageInfo> imageInfo = Optional.ofNullable(cache.getIfPresent(id));
+        if (imageInfo.isPresent()) {
+            localHits.increment();
+            return imageInfo.map(this::toJson);
+        }
+        try {
+            imageInfo = redisImageInfoRepo.findById(id);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to read cached image info for {}: {}", id, e.getMessage());
+        }
+        if (imageInfo.isPresent()) {
+            redisHits.increment();
+            cache.put(id, imageInfo.get());
+            return imageInfo.map(this::toJson);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String id, JsonNode info) {
+        if (!info.has(WIDTH) || !info.has(HEIGHT)) {
+            return;
+        }
+        Integer pageCount = info.has(PAGE_COUNT) ? info.get(PAGE_COUNT).asInt() : null;
+        RedisImageInfo imageInfo = new RedisImageInfo(id, info.get(WIDTH).asInt(), info.get(HEIGHT).asInt(), pageCount);
+        cache.put(id, imageInfo);
+        try {
+            redisImageInfoRepo.save(imageInfo);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to cache image info for {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the image info of a resolver id here and in Redis and tell the other instances to drop
+     * theirs.
+     *
+     * @param id
+     */
+    public void evict(String id) {
+        cache.invalidate(id);
+        try {
+            redisImageInfoRepo.deleteById(id);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to evict cached image info for {}: {}", id, e.getMessage());
+        }
+        publish(id);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] eviction = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 2);
+        if (eviction.length < 2 || instance.equals(eviction[0])) {
+            return;
+        }
+        cache.invalidate(eviction[1]);
+        logger.debug("Evicted cached image info for {}", eviction[1]);
+    }
+
+    private void publish(String id) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, instance + " " + id);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to publish eviction of cached image info for {}: {}", id, e.getMessage());
+        }
+    }
+
+    private JsonNode toJson(RedisImageInfo imageInfo) {
+        ObjectNode info = JsonNodeFactory.instance.objectNode();
+        info.put(WIDTH, imageInfo.getWidth());
+        info.put(HEIGHT, imageInfo.getHeight());
+        if (imageInfo.getPageCount() != null) {
+            info.put(PAGE_COUNT, imageInfo.getPageCount());
+        }
+        return info;
+    }
+
+}
@@ -0,0 +1,278 @@
+package edu.tamu.iiif.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.RedisManifest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * In-process cache of hot manifests in front of {@link RedisManifestStore}, so a hit costs neither a
+ * Redis round trip nor the transfer of the body.
+ *
+ * The cache is bounded by the bytes of the stored bodies, least recently used entries are evicted
+ * first. Bodies are optionally kept off-heap in direct buffers so large manifests do not burden the
+ * garbage collector, they are copied out on every hit then.
+ *
+ * Every save or delete of a manifest is published on a Redis channel, also with the cache disabled,
+ * and the other instances drop their entry for it. An entry loaded while an invalidation of its key
+ * arrived is not cached. Invalidations are counted per stripe of keys, so a busy instance still
+ * caches the manifests it reads while others change. Entries expire after a while regardless should
+ * an invalidation be missed while the subscription was down.
+ */
+@Service
+public class LocalManifestCache implements MessageListener {
+
+    private final static Logger logger = LoggerFactory.getLogger(LocalManifestCache.class);
+
+    public final static String CHANNEL = "iiif-manifest-invalidation";
+
+    private final static String METRIC = "iiif.manifest.local-cache";
+
+    // approximate per entry overhead of key, manifest and cache bookkeeping
+    private final static int ENTRY_OVERHEAD = 512;
+
+    private final static int VERSION_STRIPES = 1024;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final boolean offHeap;
+
+    private final String instance = UUID.randomUUID().toString();
+
+    private final Cache<String, CachedManifest> cache;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final Counter localInvalidations;
+
+    private final Counter remoteInvalidations;
+
+    // @formatter:off
+    public LocalManifestCache(
+        StringRedisTemplate redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.manifest-cache.max-bytes:67108864}") long maxBytes,
+        @Value("${iiif.service.manifest-cache.off-heap:false}") boolean offHeap,
+        @Value("${iiif.service.manifest-cache.expire-after-write:600000}") long expireAfterWrite
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.enabled = maxBytes > 0;
+        this.offHeap = offHeap;
+        // @formatter:off
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(0, maxBytes))
+            .weigher((String key, CachedManifest manifest) -> weigh(key, manifest))
+            .expireAfterWrite(Math.max(1, expireAfterWrite), TimeUnit.MILLISECONDS)
+            .removalListener(removal -> bytes.addAndGet(-weigh(removal.getKey(), removal.getValue())))
+            .recordStats()
+            .build();
+        // @formatter:on
+        this.localInvalidations = meterRegistry.counter(METRIC + ".invalidations", "source", "local");
+        this.remoteInvalidations = meterRegistry.counter(METRIC + ".invalidations", "source", "remote");
+        GuavaCacheMetrics.monitor(meterRegistry, cache, METRIC);
+        meterRegistry.gauge(METRIC + ".bytes", Tags.of("storage", offHeap ? "off-heap" : "heap"), bytes);
+    }
+
+    /**
+     * Cached manifest without its JSON by manifest key.
+     *
+     * @param key
+     * @return
+     */
+    public Optional<RedisManifest> find(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key)).map(CachedManifest::getManifest);
+    }
+
+    /**
+     * Cached body of the manifest, only if it is the body the given manifest was stored with.
+     *
+     * @param manifest
+     * @return
+     */
+    public Optional<ManifestBody> findBody(RedisManifest manifest) {
+        Optional<CachedManifest> cached = Optional.ofNullable(cache.getIfPresent(manifest.getId()));
+        if (cached.isPresent() && Objects.equals(cached.get().getManifest().getEtag(), manifest.getEtag())) {
+            return Optional.of(cached.get().getBody());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Invalidation count of the key's stripe to pass to {@link #put(RedisManifest, ManifestBody, long)},
+     * taken before reading the manifest from Redis.
+     *
+     * @param key
+     * @return
+     */
+    public long getVersion(String key) {
+        return versions.get(stripe(key));
+    }
+
+    /**
+     * Cache a manifest read from Redis, unless a manifest of its stripe was invalidated since the given
+     * version was taken as it may have been read before the change.
+     *
+     * @param manifest
+     * @param body
+     * @param version
+     */
+    public void put(RedisManifest manifest, ManifestBody body, long version) {
+        if (!enabled) {
+            return;
+        }
+        CachedManifest cached = new CachedManifest(manifest, body, offHeap);
+        synchronized (this) {
+            if (versions.get(stripe(manifest.getId())) == version) {
+                add(manifest.getId(), cached);
+            }
+        }
+    }
+
+    /**
+     * Cache a manifest this instance just stored and tell the other instances to drop theirs.
+     *
+     * @param manifest
+     * @param body
+     */
+    public void saved(RedisManifest manifest, ManifestBody body) {
+        synchronized (this) {
+            invalidate(manifest.getId());
+        }
+        if (enabled) {
+            CachedManifest cached = new CachedManifest(manifest, body, offHeap);
+            synchronized (this) {
+                add(manifest.getId(), cached);
+            }
+        }
+        localInvalidations.increment();
+        publish(manifest.getId());
+    }
+
+    /**
+     * Drop a manifest this instance deleted and tell the other instances to drop theirs.
+     *
+     * @param key
+     */
+    public void deleted(String key) {
+        synchronized (this) {
+            invalidate(key);
+        }
+        localInvalidations.increment();
+        publish(key);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] invalidation = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 2);
+        if (invalidation.length < 2 || instance.equals(invalidation[0])) {
+            return;
+        }
+        synchronized (this) {
+            invalidate(invalidation[1]);
+        }
+        remoteInvalidations.increment();
+        logger.debug("Invalidated cached manifest {}", invalidation[1]);
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private void invalidate(String key) {
+        versions.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+
+    private void add(String key, CachedManifest cached) {
+        cache.put(key, cached);
+        bytes.addAndGet(weigh(key, cached));
+    }
+
+    private void publish(String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, instance + " " + key);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to publish invalidation of cached manifest {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static int weigh(String key, CachedManifest manifest) {
+        return key.length() * 2 + manifest.size() + ENTRY_OVERHEAD;
+    }
+
+    private static class CachedManifest {
+
+        private final RedisManifest manifest;
+
+        private final ManifestBody body;
+
+        private final ByteBuffer buffer;
+
+        private CachedManifest(RedisManifest manifest, ManifestBody body, boolean offHeap) {
+            this.manifest = manifest;
+            if (offHeap) {
+                this.body = new ManifestBody(null, body.getEncoding(), body.getEtag());
+                this.buffer = ByteBuffer.allocateDirect(body.getBytes().length);
+                this.buffer.put(body.getBytes()).flip();
+            } else {
+                this.body = body;
+                this.buffer = null;
+            }
+        }
+
+        private RedisManifest getManifest() {
+            return manifest;
+        }
+
+        private ManifestBody getBody() {
+            if (buffer == null) {
+                return body;
+            }
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.duplicate().get(bytes);
+            return new ManifestBody(bytes, body.getEncoding(), body.getEtag());
+        }
+
+        private int size() {
+            return buffer == null ? body.getBytes().length : buffer.capacity();
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package edu.tamu.iiif.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import de.digitalcollections.iiif.presentation.model.impl.jackson.v2.IiifPresentationApiObjectMapper;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.utility.JsonUnescapeWriter;
+
+/**
+ * Writes generated manifests into the body stored and sent to clients.
+ *
+ * The manifest is serialized by a prebuilt writer straight through unescaping, UTF-8 encoding,
+ * hashing for the ETag and compression into the body, without the intermediate JSON string, its
+ * unescaped copy and its byte array a large collection or presentation would otherwise need at once.
+ * The output is the same as unescaping the indented JSON string, compact output leaves out the
+ * indentation.
+ */
+@Service
+public class ManifestBodyWriter {
+
+    private final static int INITIAL_SIZE = 8192;
+
+    private final ObjectWriter writer;
+
+    private final ManifestEncoding compression;
+
+    // @formatter:off
+    public ManifestBodyWriter(
+        @Value("${iiif.service.manifest-store.compact:false}") boolean compact,
+        @Value("${iiif.service.manifest-store.compression:gzip}") String compression
+    ) {
+    // @formatter:on
+        ObjectMapper mapper = new IiifPresentationApiObjectMapper();
+
+        // This deprecated use cannot be removed until IiifPresentationApiObjectMapper() exposes builder().
+        mapper.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY);
+
+        this.writer = compact ? mapper.writer().without(SerializationFeature.INDENT_OUTPUT) : mapper.writer(SerializationFeature.INDENT_OUTPUT);
+        this.compression = ManifestEncoding.of(compression);
+    }
+
+    /**
+     * Serialize the manifest into a body.
+     *
+     * @param manifest
+     *            IIIF presentation object
+     * @return
+     * @throws IOException
+     */
+    public ManifestBody write(Object manifest) throws IOException {
+        Sink sink = new Sink(compression);
+        writer.writeValue(sink.open(), manifest);
+        return sink.toBody();
+    }
+
+    /**
+     * Body of already serialized JSON, e.g. image information passed through or manifests cached by
+     * earlier versions.
+     *
+     * @param json
+     * @return
+     * @throws IOException
+     */
+    public ManifestBody writeJson(String json) throws IOException {
+        Sink sink = new Sink(compression);
+        try (Writer out = sink.open()) {
+            out.write(json);
+        }
+        return sink.toBody();
+    }
+
+    public ManifestEncoding getCompression() {
+        return compression;
+    }
+
+    private static class Sink {
+
+        private final ManifestEncoding encoding;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_SIZE);
+
+        private final MessageDigest digest;
+
+        private Sink(ManifestEncoding encoding) throws IOException {
+            this.encoding = encoding;
+            try {
+                this.digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException("MD5 not available!", e);
+            }
+        }
+
+        /**
+         * Writer into the body, closing it completes the body.
+         */
+        private Writer open() throws IOException {
+            return new JsonUnescapeWriter(new OutputStreamWriter(new DigestOutputStream(encoding.encode(bytes), digest), StandardCharsets.UTF_8));
+        }
+
+        private ManifestBody toBody() {
+            return new ManifestBody(bytes.toByteArray(), encoding, String.format("%032x", new BigInteger(1, digest.digest())));
+        }
+
+    }
+
+}
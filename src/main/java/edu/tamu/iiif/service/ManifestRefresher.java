@@ -0,0 +1,202 @@
+package edu.tamu.iiif.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.tamu.iiif.service.GenerationCoalescer.ManifestGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Regenerates cached manifests in the background so update requests can be answered from cache.
+ *
+ * A manifest key is refreshed at most once at a time and at most once per minimum interval, duplicate
+ * requests in between are dropped. Forced refreshes, e.g. from repository change messages, skip the
+ * interval and run once more after a refresh already in progress so the change is not missed. Only
+ * update requests are dropped when the queue is full, forced refreshes then run on the calling thread.
+ * With a concurrency of 0 refreshing is disabled and update requests regenerate synchronously.
+ */
+@Service
+public class ManifestRefresher {
+
+    private final static Logger logger = LoggerFactory.getLogger(ManifestRefresher.class);
+
+    private final static String METRIC = "iiif.manifest.refresh";
+
+    public enum Refresh {
+        SCHEDULED, IN_PROGRESS, RATE_LIMITED, REJECTED, REFRESHED
+    }
+
+    private final Set<String> refreshing = new HashSet<String>();
+
+    private final Set<String> rerun = new HashSet<String>();
+
+    private final Cache<String, Long> recent;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter scheduled;
+
+    private final Counter coalesced;
+
+    private final Counter rateLimited;
+
+    private final Counter rejected;
+
+    private final Counter callerRuns;
+
+    private final Counter failed;
+
+    // @formatter:off
+    public ManifestRefresher(
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.refresh.concurrency:2}") int concurrency,
+        @Value("${iiif.service.refresh.queue-capacity:100}") int queueCapacity,
+        @Value("${iiif.service.refresh.min-interval:60000}") long minInterval
+    ) {
+    // @formatter:on
+        this.recent = CacheBuilder.newBuilder().expireAfterWrite(Math.max(1, minInterval), TimeUnit.MILLISECONDS).build();
+        this.executor = concurrency > 0 ? new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)), new RefreshThreadFactory()) : null;
+        this.scheduled = meterRegistry.counter(METRIC, "result", "scheduled");
+        this.coalesced = meterRegistry.counter(METRIC, "result", "coalesced");
+        this.rateLimited = meterRegistry.counter(METRIC, "result", "rate-limited");
+        this.rejected = meterRegistry.counter(METRIC, "result", "rejected");
+        this.callerRuns = meterRegistry.counter(METRIC, "result", "caller-runs");
+        this.failed = meterRegistry.counter(METRIC, "result", "failed");
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Refresh the manifest of the given key in the background.
+     *
+     * @param key
+     *            manifest key
+     * @param force
+     *            whether the refresh must not be rate limited nor dropped
+     * @param generator
+     * @return how the refresh was handled, {@link Refresh#REFRESHED} when it ran on the calling thread
+     */
+    public Refresh refresh(String key, boolean force, ManifestGenerator generator) {
+        Refresh refresh = schedule(key, force, generator);
+        if (refresh == Refresh.REFRESHED) {
+            run(key, generator);
+        }
+        return refresh;
+    }
+
+    public synchronized int getRefreshing() {
+        return refreshing.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private synchronized Refresh schedule(String key, boolean force, ManifestGenerator generator) {
+        if (!isEnabled()) {
+            return Refresh.REJECTED;
+        }
+        if (!refreshing.add(key)) {
+            if (force) {
+                rerun.add(key);
+            }
+            coalesced.increment();
+            return Refresh.IN_PROGRESS;
+        }
+        long now = System.currentTimeMillis();
+        if (force) {
+            recent.put(key, now);
+        } else if (recent.asMap().putIfAbsent(key, now) != null) {
+            refreshing.remove(key);
+            rateLimited.increment();
+            return Refresh.RATE_LIMITED;
+        }
+        return submit(key, force, generator);
+    }
+
+    /**
+     * Queue the refresh, a forced refresh the queue rejects is left to the calling thread to run.
+     */
+    private Refresh submit(String key, boolean force, ManifestGenerator generator) {
+        try {
+            executor.execute(() -> run(key, generator));
+            scheduled.increment();
+            return Refresh.SCHEDULED;
+        } catch (RejectedExecutionException e) {
+            if (force && !executor.isShutdown()) {
+                callerRuns.increment();
+                logger.warn("Refresh queue full, refreshing {} on the calling thread", key);
+                return Refresh.REFRESHED;
+            }
+            refreshing.remove(key);
+            recent.invalidate(key);
+            rejected.increment();
+            logger.warn("Refresh queue full, not refreshing {}", key);
+            return Refresh.REJECTED;
+        }
+    }
+
+    private void run(String key, ManifestGenerator generator) {
+        boolean again;
+        do {
+            try {
+                generator.generate();
+                logger.info("Refreshed {}", key);
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                failed.increment();
+                logger.warn("Unable to refresh {}: {}", key, e.getMessage());
+            } finally {
+                again = completed(key, generator);
+            }
+        } while (again);
+    }
+
+    /**
+     * Whether a forced rerun the queue rejected is to be run by the current thread.
+     */
+    private synchronized boolean completed(String key, ManifestGenerator generator) {
+        if (rerun.remove(key)) {
+            return submit(key, true, generator) == Refresh.REFRESHED;
+        }
+        refreshing.remove(key);
+        return false;
+    }
+
+    private static class RefreshThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "iiif-refresh-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
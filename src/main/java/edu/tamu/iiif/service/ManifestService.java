@@ -2,14 +2,21 @@ package edu.tamu.iiif.service;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Optional;
 
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.model.ManifestType;
+import edu.tamu.iiif.model.ManifestValidators;
 
 public interface ManifestService {
 
     public String getManifest(ManifestRequest request) throws IOException, URISyntaxException;
 
+    public ManifestResult getManifestResult(ManifestRequest request) throws IOException, URISyntaxException;
+
+    public Optional<ManifestValidators> getManifestValidators(ManifestRequest request);
+
     public String getRepository();
 
     public ManifestType getManifestType();
@@ -16,7 +16,6 @@ import org.springframework.stereotype.Service;
 
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.model.RedisManifest;
-import edu.tamu.iiif.model.repo.RedisManifestRepo;
 import edu.tamu.weaver.messaging.annotation.WeaverMessageListener;
 import edu.tamu.weaver.messaging.config.MessagingConfig;
 import edu.tamu.weaver.messaging.model.MessageAction;
@@ -29,7 +28,7 @@ public class MessageListenerService {
     private static final Logger logger = LoggerFactory.getLogger(MessageListenerService.class);
 
     @Autowired
-    private RedisManifestRepo manifestRepo;
+    private RedisManifestStore manifestStore;
 
     @Autowired
     private List<ManifestService> manifestServices;
@@ -52,11 +51,13 @@ public class MessageListenerService {
     }
 
     private void updateManifest(String id) {
-        List<RedisManifest> manifests = manifestRepo.findByPath(encode(id));
+        List<RedisManifest> manifests = manifestStore.findByPath(encode(id));
         manifests.stream().forEach(manifest -> {
             manifestServices.stream().filter(manifestService -> manifestService.getManifestType().equals(manifest.getType()) && manifestService.getRepository().equals(manifest.getRepository())).forEach(manifestService -> {
                 try {
-                    manifestService.getManifest(ManifestRequest.of(manifest));
+                    // the result is not sent anywhere, its body is not decoded, the forced generation
+                    // evicts the image info of the changed resource on every instance and refetches it
+                    manifestService.getManifestResult(ManifestRequest.of(manifest));
                 } catch (IOException | URISyntaxException e) {
                     if (logger.isDebugEnabled()) {
                         e.printStackTrace();
@@ -0,0 +1,190 @@
+package edu.tamu.iiif.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.rdf.RdfProjection;
+
+/**
+ * Process wide cache of upstream RDF documents, shared by all manifest generations.
+ *
+ * Entries are stored as RDF Thrift and the cache is bounded by the total size of those bytes, least
+ * recently used entries are evicted first. Once an entry is older than the revalidation interval the
+ * upstream repository is asked with If-None-Match / If-Modified-Since whether it changed, a 304 keeps
+ * the cached document without downloading and parsing it again. Generations of updates and of
+ * repository changes revalidate regardless of the interval, the change they are meant to pick up may
+ * have happened within it. Models parsed with a predicate projection are cached apart from each other
+ * and from the full model.
+ */
+@Service
+public class RdfDocumentCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(RdfDocumentCache.class);
+
+    // approximate per entry overhead of key, validators and cache bookkeeping
+    private final static int ENTRY_OVERHEAD = 256;
+
+    private final long revalidateAfter;
+
+    private final Cache<String, CachedRdf> cache;
+
+    public RdfDocumentCache(@Value("${iiif.service.rdf-cache.max-bytes:67108864}") long maxBytes, @Value("${iiif.service.rdf-cache.revalidate-after:60000}") long revalidateAfter) {
+        this.revalidateAfter = revalidateAfter;
+        // @formatter:off
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(0, maxBytes))
+            .weigher((String key, CachedRdf rdf) -> key.length() * 2 + rdf.size() + ENTRY_OVERHEAD)
+            .recordStats()
+            .build();
+        // @formatter:on
+    }
+
+    public Model getModel(String url, RdfFetcher fetcher) throws NotFoundException {
+        return getModel(url, Optional.empty(), fetcher);
+    }
+
+    public Model getModel(String url, Optional<RdfProjection> projection, RdfFetcher fetcher) throws NotFoundException {
+        return getModel(url, projection, false, fetcher);
+    }
+
+    /**
+     * Cached model of the document, revalidated with the upstream repository once older than the
+     * revalidation interval or always when asked to.
+     *
+     * @param url
+     * @param projection
+     * @param revalidate
+     *            send the conditional request even within the revalidation interval
+     * @param fetcher
+     * @return
+     * @throws NotFoundException
+     */
+    public Model getModel(String url, Optional<RdfProjection> projection, boolean revalidate, RdfFetcher fetcher) throws NotFoundException {
+        String key = projection.isPresent() ? url + " " + projection.get().getKey() : url;
+        long now = System.currentTimeMillis();
+        Optional<CachedRdf> cached = Optional.ofNullable(cache.getIfPresent(key));
+
+        if (!revalidate && cached.isPresent() && now - cached.get().getValidated() < revalidateAfter) {
+            return cached.get().toModel();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        cached.ifPresent(rdf -> rdf.addConditionalHeaders(headers));
+
+        ResponseEntity<Model> response = fetcher.fetch(url, headers);
+
+        if (cached.isPresent() && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            logger.debug("RDF for {} not modified", url);
+            cache.put(key, cached.get().revalidated(now));
+            return cached.get().toModel();
+        }
+
+        Optional<Model> model = Optional.ofNullable(response.getBody());
+        if (!model.isPresent()) {
+            throw new NotFoundException("RDF not found! " + url);
+        }
+
+        cache.put(key, CachedRdf.of(model.get(), response.getHeaders(), now));
+        return model.get();
+    }
+
+    public void invalidate(String url) {
+        cache.invalidate(url);
+        cache.asMap().keySet().removeIf(key -> key.startsWith(url + " "));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    @FunctionalInterface
+    public interface RdfFetcher {
+
+        /**
+         * Fetch the RDF document, the given headers carry the conditional request validators if any.
+         *
+         * @param url
+         * @param headers
+         * @return response with the parsed model, or status 304 and no model when not modified
+         * @throws NotFoundException
+         */
+        public ResponseEntity<Model> fetch(String url, HttpHeaders headers) throws NotFoundException;
+
+    }
+
+    private static class CachedRdf {
+
+        private final byte[] thrift;
+
+        private final Optional<String> eTag;
+
+        private final Optional<String> lastModified;
+
+        private final long validated;
+
+        private CachedRdf(byte[] thrift, Optional<String> eTag, Optional<String> lastModified, long validated) {
+            this.thrift = thrift;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.validated = validated;
+        }
+
+        private int size() {
+            return thrift.length;
+        }
+
+        private long getValidated() {
+            return validated;
+        }
+
+        private Model toModel() {
+            Model model = ModelFactory.createDefaultModel();
+            RDFDataMgr.read(model, new ByteArrayInputStream(thrift), Lang.RDFTHRIFT);
+            return model;
+        }
+
+        private void addConditionalHeaders(HttpHeaders headers) {
+            eTag.ifPresent(headers::setIfNoneMatch);
+            lastModified.ifPresent(value -> headers.set(HttpHeaders.IF_MODIFIED_SINCE, value));
+        }
+
+        private CachedRdf revalidated(long now) {
+            return new CachedRdf(thrift, eTag, lastModified, now);
+        }
+
+        private static CachedRdf of(Model model, HttpHeaders headers, long now) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            RDFDataMgr.write(out, model, RDFFormat.RDF_THRIFT);
+            return new CachedRdf(out.toByteArray(), Optional.ofNullable(headers.getETag()), Optional.ofNullable(headers.getFirst(HttpHeaders.LAST_MODIFIED)), now);
+        }
+
+    }
+
+}
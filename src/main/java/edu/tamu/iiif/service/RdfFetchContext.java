@@ -0,0 +1,165 @@
+package edu.tamu.iiif.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.rdf.model.Model;
+
+import edu.tamu.iiif.exception.NotFoundException;
+
+/**
+ * Memoizes parsed RDF models for the duration of a single manifest generation so each upstream
+ * document is fetched and parsed once, regardless of how many service methods ask for it.
+ *
+ * The context is bound to the generating thread and carried over to generation worker threads by
+ * {@link GenerationTaskExecutor}. Models are shared between threads and must be treated as read only.
+ *
+ * It also holds the resolver ids of image URLs resolved ahead in one call for the whole sequence and
+ * of those resolved one at a time, the mappings of all are stored before the manifest.
+ *
+ * A context opened for an update or a repository change revalidates cached documents with the
+ * repository instead of trusting them within the revalidation interval. One opened for a repository
+ * change refetches the image info of the images it includes as well.
+ */
+public class RdfFetchContext implements AutoCloseable {
+
+    private final static ThreadLocal<RdfFetchContext> CURRENT = new ThreadLocal<RdfFetchContext>();
+
+    private final Map<String, CompletableFuture<Model>> models;
+
+    private final AtomicInteger fetches;
+
+    private final AtomicInteger duplicates;
+
+    private final Map<String, String> resourceIds;
+
+    private final boolean revalidate;
+
+    private final boolean refreshImageInfo;
+
+    private RdfFetchContext(boolean revalidate, boolean refreshImageInfo) {
+        this.revalidate = revalidate;
+        this.refreshImageInfo = refreshImageInfo;
+        this.models = new ConcurrentHashMap<String, CompletableFuture<Model>>();
+        this.resourceIds = new ConcurrentHashMap<String, String>();
+        this.fetches = new AtomicInteger();
+        this.duplicates = new AtomicInteger();
+    }
+
+    public Model getModel(String url, RdfLoader loader) throws NotFoundException {
+        CompletableFuture<Model> created = new CompletableFuture<Model>();
+        CompletableFuture<Model> existing = models.putIfAbsent(url, created);
+        if (existing != null) {
+            duplicates.incrementAndGet();
+            return await(existing);
+        }
+        fetches.incrementAndGet();
+        try {
+            Model model = loader.load(url);
+            created.complete(model);
+            return model;
+        } catch (NotFoundException | RuntimeException e) {
+            // failures are not memoized, only concurrent waiters share them
+            models.remove(url, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Optional<String> getResourceId(String url) {
+        return Optional.ofNullable(resourceIds.get(url));
+    }
+
+    public void putResourceIds(Map<String, String> resourceIds) {
+        this.resourceIds.putAll(resourceIds);
+    }
+
+    public void putResourceId(String url, String resourceId) {
+        this.resourceIds.put(url, resourceId);
+    }
+
+    /**
+     * Resolver ids handed out during the generation by URL.
+     *
+     * @return
+     */
+    public Map<String, String> getResourceIds() {
+        return Collections.unmodifiableMap(resourceIds);
+    }
+
+    public boolean isRevalidate() {
+        return revalidate;
+    }
+
+    public boolean isRefreshImageInfo() {
+        return refreshImageInfo;
+    }
+
+    public int getFetches() {
+        return fetches.get();
+    }
+
+    public int getDuplicates() {
+        return duplicates.get();
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    public static RdfFetchContext open() {
+        return open(false);
+    }
+
+    public static RdfFetchContext open(boolean revalidate) {
+        return open(revalidate, false);
+    }
+
+    public static RdfFetchContext open(boolean revalidate, boolean refreshImageInfo) {
+        RdfFetchContext context = new RdfFetchContext(revalidate, refreshImageInfo);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static Optional<RdfFetchContext> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void attach(Optional<RdfFetchContext> context) {
+        if (context.isPresent()) {
+            CURRENT.set(context.get());
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private Model await(CompletableFuture<Model> future) throws NotFoundException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NotFoundException) {
+                throw (NotFoundException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface RdfLoader {
+
+        public Model load(String url) throws NotFoundException;
+
+    }
+
+}
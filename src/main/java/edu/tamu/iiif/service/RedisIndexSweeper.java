@@ -0,0 +1,306 @@
+package edu.tamu.iiif.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ConvertingCursor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Removes index entries left behind by expired or lost Redis entries.
+ *
+ * Spring Data keeps the ids of a keyspace in a set and the ids by indexed value in further sets, an
+ * expired hash only leaves them when the keyspace event arrives while an instance listens. Ids whose
+ * hash is gone are removed from the keyspace set and all index sets listed for them. Manifest bodies
+ * whose manifest is gone are deleted and removed from the set of their path as well.
+ *
+ * Sets and keys are scanned in batches, each batch is checked for entries gone in one pipeline as it
+ * arrives and only those are removed. Every removal checks again atomically that the entry is still
+ * gone, so entries saved meanwhile are left alone, with every key it touches passed to the script.
+ * One instance sweeps at a time under a {@link GenerationLease}, the others skip the interval. With an
+ * interval of 0 sweeping is disabled.
+ */
+@Service
+public class RedisIndexSweeper {
+
+    private final static Logger logger = LoggerFactory.getLogger(RedisIndexSweeper.class);
+
+    private final static String METRIC = "iiif.redis.index-sweeper";
+
+    private final static String LEASE_KEY = "index-sweeper";
+
+    private final static int SCAN_COUNT = 1000;
+
+    public final static List<String> KEYSPACES = Collections.unmodifiableList(Arrays.asList(RedisResourceResolver.KEYSPACE, "image-info", "manifest"));
+
+    // @formatter:off
+    private final static RedisScript<Long> REMOVE_ID = RedisScript.of(
+        "if redis.call('exists', KEYS[2]) == 0 then " +
+            "for i = 4, #KEYS do redis.call('srem', KEYS[i], ARGV[1]) end " +
+            "redis.call('del', KEYS[3]) " +
+            "return redis.call('srem', KEYS[1], ARGV[1]) " +
+        "else return 0 end",
+        Long.class
+    );
+
+    private final static RedisScript<Long> REMOVE_BODY = RedisScript.of(
+        "if redis.call('exists', KEYS[1]) == 0 then return redis.call('del', KEYS[2]) else return 0 end",
+        Long.class
+    );
+
+    private final static RedisScript<Long> REMOVE_PATH_MEMBER = RedisScript.of(
+        "if redis.call('exists', KEYS[1]) == 0 then return redis.call('srem', KEYS[2], KEYS[1]) else return 0 end",
+        Long.class
+    );
+    // @formatter:on
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final GenerationLease generationLease;
+
+    private final ScheduledExecutorService executor;
+
+    private final Counter removedIds;
+
+    private final Counter removedBodies;
+
+    private final Counter removedPathMembers;
+
+    // @formatter:off
+    public RedisIndexSweeper(
+        StringRedisTemplate redisTemplate,
+        GenerationLease generationLease,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.service.index-sweeper.interval:3600000}") long interval
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.generationLease = generationLease;
+        this.removedIds = meterRegistry.counter(METRIC + ".removed", "entry", "index");
+        this.removedBodies = meterRegistry.counter(METRIC + ".removed", "entry", "body");
+        this.removedPathMembers = meterRegistry.counter(METRIC + ".removed", "entry", "path");
+        if (interval > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "iiif-index-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Sweep all keyspaces, manifest bodies and manifest path sets once.
+     *
+     * @return number of removed ids, bodies and path set members
+     */
+    public long sweep() {
+        long removed = 0;
+        for (String keyspace : KEYSPACES) {
+            removed += sweep(keyspace);
+        }
+        return removed + sweepBodies() + sweepPaths();
+    }
+
+    /**
+     * Number of ids in the keyspace set, orphans not yet swept included.
+     *
+     * @param keyspace
+     * @return
+     */
+    public long size(String keyspace) {
+        Long size = redisTemplate.opsForSet().size(keyspace);
+        return size != null ? size : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    long sweep(String keyspace) {
+        long removed = inBatches(redisTemplate.opsForSet().scan(keyspace, scanOptions()), ids -> removeIds(keyspace, ids));
+        removedIds.increment(removed);
+        return removed;
+    }
+
+    long sweepBodies() {
+        long removed = inBatches(scanKeys(RedisManifestStore.BODY_PREFIX + "*"), this::removeBodies);
+        removedBodies.increment(removed);
+        return removed;
+    }
+
+    long sweepPaths() {
+        long removed = inBatches(scanKeys(RedisManifestStore.PATH_PREFIX + "*"), this::removePathMembers);
+        removedPathMembers.increment(removed);
+        return removed;
+    }
+
+    private long removeIds(String keyspace, List<String> ids) {
+        List<String> orphans = gone(ids, id -> keyspace + ":" + id);
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        List<Object> indexes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            orphans.forEach(id -> connection.sMembers(bytes(keyspace + ":" + id + ":idx")));
+            return null;
+        });
+        long removed = 0;
+        for (int i = 0; i < orphans.size(); i++) {
+            String key = keyspace + ":" + orphans.get(i);
+            List<String> keys = new ArrayList<String>(Arrays.asList(keyspace, key, key + ":idx"));
+            if (indexes.get(i) instanceof Collection) {
+                ((Collection<?>) indexes.get(i)).forEach(index -> keys.add(index.toString()));
+            }
+            removed += removed(redisTemplate.execute(REMOVE_ID, keys, orphans.get(i)));
+        }
+        return removed;
+    }
+
+    private long removeBodies(List<String> bodyKeys) {
+        long removed = 0;
+        for (String bodyKey : gone(bodyKeys, RedisIndexSweeper::manifestKey)) {
+            removed += removed(redisTemplate.execute(REMOVE_BODY, Arrays.asList(manifestKey(bodyKey), bodyKey)));
+        }
+        return removed;
+    }
+
+    private long removePathMembers(List<String> pathKeys) {
+        List<Object> members = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            pathKeys.forEach(pathKey -> connection.sMembers(bytes(pathKey)));
+            return null;
+        });
+        List<String> keys = new ArrayList<String>();
+        List<String> paths = new ArrayList<String>();
+        for (int i = 0; i < pathKeys.size(); i++) {
+            if (members.get(i) instanceof Collection) {
+                for (Object member : (Collection<?>) members.get(i)) {
+                    keys.add(member.toString());
+                    paths.add(pathKeys.get(i));
+                }
+            }
+        }
+        List<Object> exists = exists(keys);
+        long removed = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                removed += removed(redisTemplate.execute(REMOVE_PATH_MEMBER, Arrays.asList(keys.get(i), paths.get(i))));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Entries of the batch whose key is gone, checked in one pipeline.
+     */
+    private List<String> gone(List<String> entries, Function<String, String> key) {
+        List<Object> exists = exists(entries.stream().map(key).collect(Collectors.toList()));
+        List<String> gone = new ArrayList<String>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                gone.add(entries.get(i));
+            }
+        }
+        return gone;
+    }
+
+    private List<Object> exists(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(key -> connection.exists(bytes(key)));
+            return null;
+        });
+    }
+
+    /**
+     * Hand the entries of the cursor to the sweeper a scan batch at a time.
+     */
+    private long inBatches(Cursor<String> cursor, ToLongFunction<List<String>> sweeper) {
+        long removed = 0;
+        List<String> batch = new ArrayList<String>(SCAN_COUNT);
+        try (Cursor<String> entries = cursor) {
+            while (entries.hasNext()) {
+                batch.add(entries.next());
+                if (batch.size() == SCAN_COUNT) {
+                    removed += sweeper.applyAsLong(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to close scan cursor: {}", e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            removed += sweeper.applyAsLong(batch);
+        }
+        return removed;
+    }
+
+    private Cursor<String> scanKeys(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        return redisTemplate.executeWithStickyConnection(connection -> new ConvertingCursor<byte[], String>(connection.scan(options), key -> new String(key, StandardCharsets.UTF_8)));
+    }
+
+    private void run() {
+        try {
+            boolean swept = generationLease.runExclusively(LEASE_KEY, () -> {
+                long removed = sweep();
+                if (removed > 0) {
+                    logger.info("Removed {} orphaned Redis index entries", removed);
+                }
+            });
+            if (!swept) {
+                logger.debug("Another instance is sweeping Redis indexes");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Unable to sweep Redis indexes: {}", e.getMessage());
+        }
+    }
+
+    private static ScanOptions scanOptions() {
+        return ScanOptions.scanOptions().count(SCAN_COUNT).build();
+    }
+
+    private static String manifestKey(String bodyKey) {
+        return RedisManifestStore.KEY_PREFIX + bodyKey.substring(RedisManifestStore.BODY_PREFIX.length());
+    }
+
+    private static long removed(Long result) {
+        return result != null && result > 0 ? 1 : 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
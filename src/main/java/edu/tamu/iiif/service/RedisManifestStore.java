@@ -0,0 +1,445 @@
+package edu.tamu.iiif.service;
+
+import static edu.tamu.iiif.controller.ManifestRequest.canonicalize;
+import static edu.tamu.iiif.utility.StringUtility.unescapeJson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ConvertingCursor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.tamu.iiif.config.model.ManifestTtlConfig;
+import edu.tamu.iiif.model.CacheSize;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.ManifestType;
+import edu.tamu.iiif.model.RedisManifest;
+import edu.tamu.iiif.model.repo.RedisManifestRepo;
+import edu.tamu.iiif.service.GenerationLease.Lease;
+
+/**
+ * Cached manifests stored under one deterministic key per request,
+ * iiif-manifest:{encoded path}:{repository}:{type}:{allowed}:{disallowed}, so a lookup is a single
+ * GET and a write a single SET. Allowed and disallowed mime types are canonicalized for the key only.
+ * The keys of a path are added to one set, iiif-manifest-path:{encoded path}, with the same write, so
+ * a change message finds the manifests of its path without scanning the keyspace. Members whose
+ * manifest expired are removed by the {@link RedisIndexSweeper}.
+ *
+ * The key holds the manifest without its JSON, id, validators, creation and encoding, so conditional
+ * requests and change messages never read the manifest itself. The body, the JSON as sent to clients
+ * compressed once when written, is stored as raw bytes under iiif-manifest-body:{...} and written in the
+ * same command.
+ *
+ * Hot manifests are served from a {@link LocalManifestCache} in front of Redis, saves and deletes
+ * invalidate it on every instance. Both keys expire after the TTL of the manifest type, extended
+ * whenever the manifest is requested, see {@link ManifestTtlConfig}.
+ *
+ * Manifests cached by earlier versions as indexed hashes are moved to this layout on startup, read in
+ * batches from their keyspace set.
+ */
+@Service
+public class RedisManifestStore {
+
+    private final static Logger logger = LoggerFactory.getLogger(RedisManifestStore.class);
+
+    public final static String KEY_PREFIX = "iiif-manifest:";
+
+    public final static String BODY_PREFIX = "iiif-manifest-body:";
+
+    public final static String PATH_PREFIX = "iiif-manifest-path:";
+
+    private final static String LEGACY_KEYSPACE = "manifest";
+
+    private final static int SCAN_COUNT = 1000;
+
+    private final static int MAX_TOUCHED = 100000;
+
+    // @formatter:off
+    private final static RedisScript<Long> FENCED_SET = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "redis.call('mset', KEYS[2], ARGV[2], KEYS[3], ARGV[3]) " +
+            "redis.call('sadd', KEYS[4], KEYS[2]) " +
+            "if tonumber(ARGV[4]) > 0 then redis.call('pexpire', KEYS[2], ARGV[4]) redis.call('pexpire', KEYS[3], ARGV[4]) end " +
+            "return 1 " +
+        "else return 0 end",
+        Long.class
+    );
+    // @formatter:on
+
+    private final RedisTemplate<String, RedisManifest> redisTemplate;
+
+    private final RedisManifestRepo redisManifestRepo;
+
+    private final boolean migrate;
+
+    private final ManifestBodyWriter manifestBodyWriter;
+
+    private final LocalManifestCache localManifestCache;
+
+    private final ManifestTtlConfig manifestTtlConfig;
+
+    private final Cache<String, Boolean> touched;
+
+    // @formatter:off
+    public RedisManifestStore(
+        RedisTemplate<String, RedisManifest> redisTemplate,
+        RedisManifestRepo redisManifestRepo,
+        @Value("${iiif.service.manifest-store.migrate:true}") boolean migrate,
+        ManifestBodyWriter manifestBodyWriter,
+        LocalManifestCache localManifestCache,
+        ManifestTtlConfig manifestTtlConfig
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.redisManifestRepo = redisManifestRepo;
+        this.migrate = migrate;
+        this.manifestBodyWriter = manifestBodyWriter;
+        this.localManifestCache = localManifestCache;
+        this.manifestTtlConfig = manifestTtlConfig;
+        this.touched = CacheBuilder.newBuilder().expireAfterWrite(Math.max(1, manifestTtlConfig.getRefreshInterval()), TimeUnit.MILLISECONDS).maximumSize(MAX_TOUCHED).build();
+    }
+
+    /**
+     * Cached manifest without its JSON, see {@link #findBody(RedisManifest)}.
+     *
+     * @return
+     */
+    public Optional<RedisManifest> find(String path, ManifestType type, String repository, String allowed, String disallowed) {
+        String key = key(path, type, repository, allowed, disallowed);
+        Optional<RedisManifest> cached = localManifestCache.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return Optional.ofNullable(redisTemplate.opsForValue().get(key));
+    }
+
+    /**
+     * Body of a cached manifest in the encoding it was stored with.
+     *
+     * A body read from Redis is read together with the manifest it was stored with and both are kept
+     * in the local cache.
+     *
+     * @param manifest
+     * @return
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<ManifestBody> findBody(RedisManifest manifest) throws IOException {
+        if (manifest.getJson() != null) {
+            // stored with its JSON by an earlier version, which unescaped it on every response
+            return Optional.of(ManifestBody.encode(unescapeJson(manifest.getJson()), ManifestEncoding.NONE));
+        }
+        Optional<ManifestBody> cached = localManifestCache.findBody(manifest);
+        if (cached.isPresent()) {
+            touch(manifest);
+            return cached;
+        }
+        long version = localManifestCache.getVersion(manifest.getId());
+        byte[] key = serializeKey(manifest.getId());
+        byte[] bodyKey = serializeKey(bodyKey(manifest.getId()));
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(key, bodyKey));
+        if (values == null || values.size() < 2 || values.get(1) == null) {
+            return Optional.empty();
+        }
+        RedisManifest stored = values.get(0) != null ? ((RedisSerializer<RedisManifest>) redisTemplate.getValueSerializer()).deserialize(values.get(0)) : manifest;
+        ManifestEncoding encoding = stored.getEncoding() != null ? stored.getEncoding() : ManifestEncoding.NONE;
+        ManifestBody body = new ManifestBody(values.get(1), encoding, stored.getEtag());
+        localManifestCache.put(stored, body, version);
+        touch(stored);
+        return Optional.of(body);
+    }
+
+    /**
+     * Store the manifest with its body, the validators and encoding of the manifest are taken from the
+     * body.
+     *
+     * @param manifest
+     * @param body
+     * @return
+     */
+    public RedisManifest save(RedisManifest manifest, ManifestBody body) {
+        Map<byte[], byte[]> entries = prepare(manifest, body);
+        byte[] key = serializeKey(manifest.getId());
+        byte[] pathKey = serializeKey(pathKey(manifest.getPath()));
+        long ttl = manifestTtlConfig.getTtl(manifest.getType());
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> {
+            connection.openPipeline();
+            connection.mSet(entries);
+            connection.sAdd(pathKey, key);
+            if (ttl > 0) {
+                entries.keySet().forEach(entry -> connection.pExpire(entry, ttl));
+            }
+            connection.closePipeline();
+            return true;
+        });
+        saved(manifest, body);
+        return manifest;
+    }
+
+    /**
+     * Write the manifest only while the lease it was generated under is still held by the same fencing
+     * token, a generation that outlived its lease must not overwrite the result of the next holder.
+     *
+     * @param manifest
+     * @param body
+     * @param lease
+     * @return whether the manifest was written
+     */
+    public boolean save(RedisManifest manifest, ManifestBody body, Lease lease) {
+        if (!lease.isFenced()) {
+            save(manifest, body);
+            return true;
+        }
+        List<byte[]> values = new ArrayList<byte[]>(prepare(manifest, body).values());
+        byte[] token = String.valueOf(lease.getToken()).getBytes(StandardCharsets.UTF_8);
+        byte[] ttl = String.valueOf(manifestTtlConfig.getTtl(manifest.getType())).getBytes(StandardCharsets.UTF_8);
+        Long written = redisTemplate.execute(FENCED_SET, RedisSerializer.byteArray(), new GenericToStringSerializer<Long>(Long.class), Arrays.asList(lease.getKey(), manifest.getId(), bodyKey(manifest.getId()), pathKey(manifest.getPath())), token, values.get(0), values.get(1), ttl);
+        if (written == null || written == 0) {
+            logger.warn("Not storing manifest {}, generation lease with token {} was lost", manifest.getId(), lease.getToken());
+            return false;
+        }
+        saved(manifest, body);
+        return true;
+    }
+
+    /**
+     * All cached manifests of a path, any repository, type and mime type restriction, without their
+     * JSON. Keys are read from the set of the path.
+     *
+     * @param path
+     *            encoded path
+     * @return
+     */
+    public List<RedisManifest> findByPath(String path) {
+        byte[] pathKey = serializeKey(pathKey(path));
+        List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            Set<byte[]> members = connection.sMembers(pathKey);
+            return members != null ? members.stream().map(member -> new String(member, StandardCharsets.UTF_8)).collect(Collectors.toList()) : new ArrayList<String>();
+        });
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<RedisManifest>();
+        }
+        return redisTemplate.opsForValue().multiGet(keys).stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public void delete(RedisManifest manifest) {
+        String key = key(manifest.getPath(), manifest.getType(), manifest.getRepository(), manifest.getAllowed(), manifest.getDisallowed());
+        byte[] pathKey = serializeKey(pathKey(manifest.getPath()));
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.del(serializeKey(key), serializeKey(bodyKey(key)));
+            connection.sRem(pathKey, serializeKey(key));
+            return null;
+        });
+        localManifestCache.deleted(key);
+        touched.invalidate(key);
+    }
+
+    /**
+     * Number and bytes of cached manifests by repository and type, the length of the stored manifest
+     * and body without Redis overhead. Keys are found with SCAN and each batch is measured in one
+     * pipeline as it arrives.
+     *
+     * @return
+     */
+    public List<CacheSize> report() {
+        Map<String, CacheSize> sizes = new TreeMap<String, CacheSize>();
+        List<String> keys = new ArrayList<String>(SCAN_COUNT);
+        try (Cursor<String> cursor = scan(KEY_PREFIX + "*")) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() == SCAN_COUNT) {
+                    measure(keys, sizes);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to close scan cursor: {}", e.getMessage());
+        }
+        measure(keys, sizes);
+        return new ArrayList<CacheSize>(sizes.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrate) {
+            try {
+                int migrated = migrate();
+                if (migrated > 0) {
+                    logger.info("Migrated {} cached manifests to composite keys", migrated);
+                }
+            } catch (DataAccessException | IOException e) {
+                logger.warn("Unable to migrate cached manifests: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Move manifests from the indexed hash layout to composite keys. An existing composite key wins
+     * over the legacy entry, the legacy hash and its index entries are removed either way. Legacy ids
+     * are read from their keyspace set with SSCAN and loaded a batch at a time.
+     *
+     * @return number of legacy manifests moved
+     * @throws IOException
+     */
+    public int migrate() throws IOException {
+        int migrated = 0;
+        List<String> ids = new ArrayList<String>(SCAN_COUNT);
+        try (Cursor<String> cursor = scanLegacyIds()) {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next());
+                if (ids.size() == SCAN_COUNT) {
+                    migrated += migrate(ids);
+                }
+            }
+        }
+        return migrated + migrate(ids);
+    }
+
+    public static String pathKey(String path) {
+        return PATH_PREFIX + path;
+    }
+
+    public static String key(String path, ManifestType type, String repository, String allowed, String disallowed) {
+        return String.join(":", KEY_PREFIX + path, repository, type.name(), canonicalize(allowed), canonicalize(disallowed));
+    }
+
+    /**
+     * Key the manifest and take its validators from the body, returns the serialized manifest and body
+     * by key in that order.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<byte[], byte[]> prepare(RedisManifest manifest, ManifestBody body) {
+        manifest.setId(key(manifest.getPath(), manifest.getType(), manifest.getRepository(), manifest.getAllowed(), manifest.getDisallowed()));
+        manifest.setEtag(body.getEtag());
+        manifest.setEncoding(body.getEncoding());
+        manifest.setJson(null);
+        Map<byte[], byte[]> entries = new LinkedHashMap<byte[], byte[]>();
+        entries.put(serializeKey(manifest.getId()), ((RedisSerializer<RedisManifest>) redisTemplate.getValueSerializer()).serialize(manifest));
+        entries.put(serializeKey(bodyKey(manifest.getId())), body.getBytes());
+        return entries;
+    }
+
+    private int migrate(List<String> ids) throws IOException {
+        int migrated = 0;
+        for (RedisManifest manifest : redisManifestRepo.findAllById(ids)) {
+            if (manifest == null) {
+                continue;
+            }
+            String legacyId = manifest.getId();
+            String key = key(manifest.getPath(), manifest.getType(), manifest.getRepository(), manifest.getAllowed(), manifest.getDisallowed());
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                ManifestBody body = manifestBodyWriter.writeJson(manifest.getJson());
+                manifest.setJson(null);
+                save(manifest, body);
+                migrated++;
+            }
+            redisManifestRepo.deleteById(legacyId);
+        }
+        // ids whose hash expired are left in the keyspace set for the sweeper
+        ids.clear();
+        return migrated;
+    }
+
+    private void saved(RedisManifest manifest, ManifestBody body) {
+        localManifestCache.saved(manifest, body);
+        touched.put(manifest.getId(), Boolean.TRUE);
+    }
+
+    /**
+     * Extend the expiry of a requested manifest, unless done within the refresh interval.
+     */
+    private void touch(RedisManifest manifest) {
+        long ttl = manifest.getType() != null ? manifestTtlConfig.getTtl(manifest.getType()) : 0;
+        if (ttl <= 0 || touched.asMap().putIfAbsent(manifest.getId(), Boolean.TRUE) != null) {
+            return;
+        }
+        byte[] key = serializeKey(manifest.getId());
+        byte[] bodyKey = serializeKey(bodyKey(manifest.getId()));
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.pExpire(key, ttl);
+                connection.pExpire(bodyKey, ttl);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Unable to extend expiry of manifest {}: {}", manifest.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Add the lengths of the keys and their bodies, read in one pipeline, to the sizes.
+     */
+    private void measure(List<String> keys, Map<String, CacheSize> sizes) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object> lengths = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.strLen(serializeKey(key));
+                connection.strLen(serializeKey(bodyKey(key)));
+            }
+            return null;
+        });
+        for (int i = 0; i < keys.size(); i++) {
+            // prefix, path, repository, type, allowed, disallowed
+            String[] parts = keys.get(i).split(":", -1);
+            if (parts.length < 4) {
+                continue;
+            }
+            long bytes = length(lengths.get(i * 2)) + length(lengths.get(i * 2 + 1));
+            sizes.computeIfAbsent(parts[2] + ":" + parts[3], name -> new CacheSize(parts[2], parts[3])).add(bytes);
+        }
+        keys.clear();
+    }
+
+    private static long length(Object length) {
+        return length instanceof Number ? ((Number) length).longValue() : 0;
+    }
+
+    private static String bodyKey(String key) {
+        return BODY_PREFIX + key.substring(KEY_PREFIX.length());
+    }
+
+    private static byte[] serializeKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Cursor<String> scanLegacyIds() {
+        byte[] keyspace = serializeKey(LEGACY_KEYSPACE);
+        ScanOptions options = ScanOptions.scanOptions().count(SCAN_COUNT).build();
+        return redisTemplate.executeWithStickyConnection(connection -> new ConvertingCursor<byte[], String>(connection.sScan(keyspace, options), id -> new String(id, StandardCharsets.UTF_8)));
+    }
+
+    private Cursor<String> scan(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        return redisTemplate.executeWithStickyConnection(connection -> new ConvertingCursor<byte[], String>(connection.scan(options), key -> new String(key, StandardCharsets.UTF_8)));
+    }
+
+}
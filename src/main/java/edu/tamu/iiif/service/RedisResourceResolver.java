@@ -1,32 +1,101 @@
 package edu.tamu.iiif.service;
 
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.commons.validator.routines.UrlValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import edu.tamu.iiif.exception.NotFoundException;
 import edu.tamu.iiif.model.RedisResource;
 import edu.tamu.iiif.model.repo.RedisResourceRepo;
 
+/**
+ * Resolver keeping resources in Redis. With a TTL configured resources expire once neither looked up
+ * nor resolved for that long, the expiry is extended at most once per refresh interval and resource.
+ *
+ * With write-behind enabled ids are derived from the URL without asking Redis and the mappings are
+ * registered in batches by the {@link ResourceRegistry}, resources stored earlier are still found.
+ * Registered mappings do not expire.
+ *
+ * Mappings looked up, created or resolved are kept in the {@link ResolverNearCache}, a resolve not
+ * cached is a single read of the URL field.
+ */
 @Service
 @ConditionalOnProperty(value = "iiif.resolver.type", havingValue = "redis", matchIfMissing = true)
 public class RedisResourceResolver implements ResourceResolver {
 
+    private final static Logger logger = LoggerFactory.getLogger(RedisResourceResolver.class);
+
     public final static UrlValidator URL_VALIDATOR = new UrlValidator(new String[] { "http", "https" }, UrlValidator.ALLOW_LOCAL_URLS);
 
+    public final static String KEYSPACE = "resource";
+
+    private final static int MAX_TOUCHED = 100000;
+
+    private final static long PHANTOM_GRACE = 300000;
+
+    private final static String URL = "url";
+
+    private final static byte[] URL_FIELD = URL.getBytes(StandardCharsets.UTF_8);
+
     @Autowired
     private RedisResourceRepo redisResourceRepo;
 
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ResourceRegistry resourceRegistry;
+
+    @Autowired
+    private ResolverNearCache nearCache;
+
+    @Value("${iiif.resolver.ttl:0}")
+    private long ttl;
+
+    @Value("${iiif.resolver.ttl-refresh-interval:3600000}")
+    private long refreshInterval;
+
+    private final Cache<String, Long> touched = CacheBuilder.newBuilder().maximumSize(MAX_TOUCHED).build();
+
     public String lookup(String url) throws URISyntaxException, NotFoundException {
         if (!URL_VALIDATOR.isValid(url)) {
             throw new URISyntaxException(url, "Not a valid URL");
         }
+        if (resourceRegistry.isEnabled()) {
+            String id = RedisResource.id(url);
+            if (resourceRegistry.contains(id) || redisResourceRepo.existsById(id)) {
+                nearCache.put(id, url);
+                return id;
+            }
+            throw new NotFoundException(String.format("Resource with url %s not found!", url));
+        }
         Optional<RedisResource> resource = redisResourceRepo.findByUrl(url);
         if (resource.isPresent()) {
+            touch(resource.get().getId());
+            nearCache.put(resource.get().getId(), url);
             return resource.get().getId();
         }
         throw new NotFoundException(String.format("Resource with url %s not found!", url));
@@ -36,22 +105,177 @@ public class RedisResourceResolver implements ResourceResolver {
         if (!URL_VALIDATOR.isValid(url)) {
             throw new URISyntaxException(url, "Not a valid URL");
         }
-        return redisResourceRepo.save(new RedisResource(url)).getId();
+        if (resourceRegistry.isEnabled()) {
+            String id = RedisResource.id(url);
+            resourceRegistry.save(id, url);
+            nearCache.put(id, url);
+            return id;
+        }
+        String id = redisResourceRepo.save(newResource(url)).getId();
+        touched.put(id, System.currentTimeMillis());
+        nearCache.put(id, url);
+        return id;
+    }
+
+    @Override
+    public String lookupOrCreate(String url) throws URISyntaxException {
+        if (!resourceRegistry.isEnabled()) {
+            return ResourceResolver.super.lookupOrCreate(url);
+        }
+        if (!URL_VALIDATOR.isValid(url)) {
+            throw new URISyntaxException(url, "Not a valid URL");
+        }
+        String id = RedisResource.id(url);
+        resourceRegistry.register(id, url);
+        nearCache.put(id, url);
+        return id;
+    }
+
+    /**
+     * Ids of the URLs, without write-behind the existence of all is checked in one pipeline and only
+     * missing resources are saved.
+     */
+    @Override
+    public Map<String, String> lookupOrCreateAll(Collection<String> urls) throws URISyntaxException {
+        Map<String, String> ids = new LinkedHashMap<String, String>();
+        for (String url : urls) {
+            if (!URL_VALIDATOR.isValid(url)) {
+                throw new URISyntaxException(url, "Not a valid URL");
+            }
+            ids.put(url, RedisResource.id(url));
+        }
+        if (resourceRegistry.isEnabled()) {
+            ids.forEach((url, id) -> resourceRegistry.register(id, url));
+            nearCache.putAll(ids);
+            return ids;
+        }
+        List<String> keys = ids.values().stream().map(RedisResourceResolver::key).collect(Collectors.toList());
+        List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(key -> connection.exists(key.getBytes(StandardCharsets.UTF_8)));
+            return null;
+        });
+        List<RedisResource> missing = new ArrayList<RedisResource>();
+        int i = 0;
+        for (Entry<String, String> entry : ids.entrySet()) {
+            if (Boolean.TRUE.equals(exists.get(i++))) {
+                touch(entry.getValue());
+            } else {
+                missing.add(newResource(entry.getKey()));
+            }
+        }
+        if (!missing.isEmpty()) {
+            redisResourceRepo.saveAll(missing);
+            missing.forEach(resource -> touched.put(resource.getId(), System.currentTimeMillis()));
+        }
+        nearCache.putAll(ids);
+        return ids;
+    }
+
+    /**
+     * Write the registrations of the ids now with write-behind enabled, failures are thrown.
+     */
+    @Override
+    public void flush(Map<String, String> ids) {
+        if (resourceRegistry.isEnabled() && !ids.isEmpty()) {
+            Map<String, String> urls = new HashMap<String, String>();
+            ids.forEach((url, id) -> urls.put(id, url));
+            resourceRegistry.flush(urls);
+        }
     }
 
     public String resolve(String id) throws NotFoundException {
-        if (redisResourceRepo.existsById(id)) {
-            return redisResourceRepo.findById(id).get().getUrl();
+        Optional<String> cached = nearCache.getUrl(id);
+        if (cached.isPresent()) {
+            touch(id);
+            return cached.get();
+        }
+        if (resourceRegistry.isEnabled()) {
+            Optional<String> url = resourceRegistry.get(id);
+            if (url.isPresent()) {
+                nearCache.put(id, url.get());
+                return url.get();
+            }
+        }
+        Object url = redisTemplate.opsForHash().get(key(id), URL);
+        if (url != null) {
+            touch(id);
+            nearCache.put(id, url.toString());
+            return url.toString();
         }
         throw new NotFoundException(String.format("Resource with id %s not found!", id));
     }
 
+    /**
+     * URLs of the ids, the URLs of resources stored as hashes are read in one pipeline.
+     */
+    @Override
+    public Map<String, String> resolveAll(Collection<String> ids) {
+        Map<String, String> found = new HashMap<String, String>();
+        if (resourceRegistry.isEnabled()) {
+            found.putAll(resourceRegistry.getAll(ids));
+        }
+        List<String> remaining = ids.stream().distinct().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        if (!remaining.isEmpty()) {
+            List<Object> urls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                remaining.forEach(id -> connection.hGet(key(id).getBytes(StandardCharsets.UTF_8), URL_FIELD));
+                return null;
+            });
+            for (int i = 0; i < remaining.size(); i++) {
+                if (urls.get(i) != null) {
+                    found.put(remaining.get(i), urls.get(i).toString());
+                    touch(remaining.get(i));
+                    nearCache.put(remaining.get(i), urls.get(i).toString());
+                }
+            }
+        }
+        Map<String, String> resolved = new LinkedHashMap<String, String>();
+        ids.stream().filter(found::containsKey).forEach(id -> resolved.put(id, found.get(id)));
+        return resolved;
+    }
+
     public void remove(String id) throws NotFoundException {
+        nearCache.evict(id);
+        boolean registered = resourceRegistry.isEnabled() && resourceRegistry.remove(id);
         if (redisResourceRepo.existsById(id)) {
             redisResourceRepo.deleteById(id);
-        } else {
+            touched.invalidate(id);
+        } else if (!registered) {
             throw new NotFoundException(String.format("Resource with id %s not found!", id));
         }
     }
 
+    private RedisResource newResource(String url) {
+        RedisResource resource = new RedisResource(url);
+        if (ttl > 0) {
+            resource.setTtl(ttl);
+        }
+        return resource;
+    }
+
+    private static String key(String id) {
+        return KEYSPACE + ":" + id;
+    }
+
+    /**
+     * Extend the expiry of a resource in use, unless done recently.
+     */
+    private void touch(String id) {
+        if (ttl <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long last = touched.getIfPresent(id);
+        if (last != null && now - last < refreshInterval) {
+            return;
+        }
+        touched.put(id, now);
+        try {
+            redisTemplate.expire(key(id), ttl, TimeUnit.MILLISECONDS);
+            // the copy kept to clean up indexes on expiry outlives the resource by five minutes
+            redisTemplate.expire(key(id) + ":phantom", ttl + PHANTOM_GRACE, TimeUnit.MILLISECONDS);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to extend expiry of resource {}: {}", id, e.getMessage());
+        }
+    }
+
 }
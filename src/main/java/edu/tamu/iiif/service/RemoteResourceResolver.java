@@ -2,11 +2,23 @@ package edu.tamu.iiif.service;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.utils.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
@@ -14,29 +26,59 @@ import org.springframework.http.RequestEntity.BodyBuilder;
 import org.springframework.http.RequestEntity.HeadersBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import edu.tamu.iiif.config.model.ResolverConfig;
 import edu.tamu.iiif.exception.NotFoundException;
 
+/**
+ * Resolver asking a remote entity resolver. Batches are sent with a single request to the batch
+ * endpoints of the resolver, as offered by {@link edu.tamu.iiif.controller.ResourceController}, and
+ * one request per resource is made should the resolver not offer them.
+ *
+ * Mappings and resources not found are kept in the {@link ResolverNearCache}, so the resolver is only
+ * asked for resources not seen recently.
+ */
 @Service
 @ConditionalOnProperty(value = "iiif.resolver.type", havingValue = "remote", matchIfMissing = false)
 public class RemoteResourceResolver implements ResourceResolver {
 
+    private final static Logger logger = LoggerFactory.getLogger(RemoteResourceResolver.class);
+
+    private final static String BATCH_PATH = "/batch";
+
+    private final static String BATCH_RESOLVE_PATH = "/batch/resolve";
+
+    private final static ParameterizedTypeReference<Map<String, String>> MAPPINGS = new ParameterizedTypeReference<Map<String, String>>() {};
+
     @Autowired
     private ResolverConfig resolver;
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ResolverNearCache nearCache;
+
+    private volatile boolean batchUnsupported = false;
+
     public String lookup(String url) throws URISyntaxException, NotFoundException {
-        URIBuilder uriBuilder = new URIBuilder(resolver.getUrl());
-        uriBuilder.addParameter("url", url);
-        URI uri = uriBuilder.build();
-        RequestEntity<Void> request = RequestEntity.get(uri).accept(MediaType.TEXT_PLAIN).build();
-        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
-        if (response.getStatusCode().equals(HttpStatus.OK)) {
-            return response.getBody();
+        Optional<String> cached = nearCache.getId(url);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (!nearCache.isMissingUrl(url)) {
+            URIBuilder uriBuilder = new URIBuilder(resolver.getUrl());
+            uriBuilder.addParameter("url", url);
+            URI uri = uriBuilder.build();
+            RequestEntity<Void> request = RequestEntity.get(uri).accept(MediaType.TEXT_PLAIN).build();
+            Optional<String> id = exchange(request);
+            if (id.isPresent()) {
+                nearCache.put(id.get(), url);
+                return id.get();
+            }
+            nearCache.missingUrl(url);
         }
         throw new NotFoundException(String.format("Resource with url %s not found!", url));
     }
@@ -52,27 +94,151 @@ public class RemoteResourceResolver implements ResourceResolver {
         RequestEntity<Void> request = bodyBuilder.build();
         ResponseEntity<String> response = restTemplate.exchange(request, String.class);
         if (response.getStatusCode().equals(HttpStatus.CREATED) || response.getStatusCode().equals(HttpStatus.OK)) {
+            nearCache.put(response.getBody(), url);
             return response.getBody();
         }
         throw new RuntimeException(String.format("Failed to create resource with url %s!", url));
     }
 
+    @Override
+    public Map<String, String> lookupOrCreateAll(Collection<String> urls) throws URISyntaxException {
+        Map<String, String> ids = new HashMap<String, String>();
+        Set<String> uncached = new LinkedHashSet<String>();
+        for (String url : urls) {
+            Optional<String> id = nearCache.getId(url);
+            if (id.isPresent()) {
+                ids.put(url, id.get());
+            } else {
+                uncached.add(url);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            Map<String, String> created = requestLookupOrCreateAll(new ArrayList<String>(uncached));
+            nearCache.putAll(created);
+            ids.putAll(created);
+        }
+        Map<String, String> ordered = new LinkedHashMap<String, String>();
+        urls.stream().filter(ids::containsKey).forEach(url -> ordered.put(url, ids.get(url)));
+        return ordered;
+    }
+
+    @Override
+    public Map<String, String> resolveAll(Collection<String> ids) {
+        Map<String, String> urls = new HashMap<String, String>();
+        Set<String> uncached = new LinkedHashSet<String>();
+        for (String id : ids) {
+            Optional<String> url = nearCache.getUrl(id);
+            if (url.isPresent()) {
+                urls.put(id, url.get());
+            } else if (!nearCache.isMissingId(id)) {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            Map<String, String> resolved = requestResolveAll(new ArrayList<String>(uncached));
+            for (String id : uncached) {
+                if (resolved.containsKey(id)) {
+                    nearCache.put(id, resolved.get(id));
+                    urls.put(id, resolved.get(id));
+                } else {
+                    nearCache.missingId(id);
+                }
+            }
+        }
+        Map<String, String> ordered = new LinkedHashMap<String, String>();
+        ids.stream().filter(urls::containsKey).forEach(id -> ordered.put(id, urls.get(id)));
+        return ordered;
+    }
+
+    private Map<String, String> requestLookupOrCreateAll(List<String> urls) throws URISyntaxException {
+        if (!batchUnsupported && urls.size() > 1) {
+            URI uri = new URIBuilder(StringUtils.removeEnd(resolver.getUrl(), "/") + BATCH_PATH).build();
+            BodyBuilder bodyBuilder = RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON);
+            if (resolver.hasCredentials()) {
+                bodyBuilder.header("Authorization", String.format("Basic %s", resolver.getBase64Credentials()));
+            }
+            Optional<Map<String, String>> ids = exchangeBatch(bodyBuilder.body(urls));
+            if (ids.isPresent()) {
+                return ids.get();
+            }
+        }
+        return ResourceResolver.super.lookupOrCreateAll(urls);
+    }
+
+    private Map<String, String> requestResolveAll(List<String> ids) {
+        if (!batchUnsupported && ids.size() > 1) {
+            try {
+                URI uri = new URIBuilder(StringUtils.removeEnd(resolver.getUrl(), "/") + BATCH_RESOLVE_PATH).build();
+                Optional<Map<String, String>> urls = exchangeBatch(RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).body(ids));
+                if (urls.isPresent()) {
+                    return urls.get();
+                }
+            } catch (URISyntaxException e) {
+                logger.warn("Invalid batch resolve URL of resolver {}, resolving one resource at a time: {}", resolver.getUrl(), e.getMessage());
+            }
+        }
+        return ResourceResolver.super.resolveAll(ids);
+    }
+
     public String resolve(String id) throws NotFoundException {
+        Optional<String> cached = nearCache.getUrl(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (!nearCache.isMissingId(id)) {
+            try {
+                URIBuilder uriBuilder = new URIBuilder(StringUtils.removeEnd(resolver.getUrl(), "/") + "/" + id);
+                URI uri = uriBuilder.build();
+                RequestEntity<Void> request = RequestEntity.get(uri).accept(MediaType.TEXT_PLAIN).build();
+                Optional<String> url = exchange(request);
+                if (url.isPresent()) {
+                    nearCache.put(id, url.get());
+                    return url.get();
+                }
+                nearCache.missingId(id);
+            } catch (URISyntaxException e) {
+                e.printStackTrace();
+            }
+        }
+        throw new NotFoundException(String.format("Resource with id %s not found!", id));
+    }
+
+    /**
+     * Body of a successful request, empty when not found.
+     */
+    private Optional<String> exchange(RequestEntity<Void> request) {
         try {
-            URIBuilder uriBuilder = new URIBuilder(StringUtils.removeEnd(resolver.getUrl(), "/") + "/" + id);
-            URI uri = uriBuilder.build();
-            RequestEntity<Void> request = RequestEntity.get(uri).accept(MediaType.TEXT_PLAIN).build();
             ResponseEntity<String> response = restTemplate.exchange(request, String.class);
             if (response.getStatusCode().equals(HttpStatus.OK)) {
-                return response.getBody();
+                return Optional.ofNullable(response.getBody());
+            }
+        } catch (HttpClientErrorException e) {
+            if (!e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
+                throw e;
             }
-        } catch (URISyntaxException e) {
-            e.printStackTrace();
         }
-        throw new NotFoundException(String.format("Resource with id %s not found!", id));
+        return Optional.empty();
+    }
+
+    private Optional<Map<String, String>> exchangeBatch(RequestEntity<?> request) {
+        try {
+            ResponseEntity<Map<String, String>> response = restTemplate.exchange(request, MAPPINGS);
+            if (response.getStatusCode().equals(HttpStatus.OK) && response.getBody() != null) {
+                return Optional.of(response.getBody());
+            }
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().equals(HttpStatus.NOT_FOUND) || e.getStatusCode().equals(HttpStatus.METHOD_NOT_ALLOWED)) {
+                batchUnsupported = true;
+                logger.info("Resolver {} does not offer batches, resolving one resource at a time", resolver.getUrl());
+            } else {
+                throw e;
+            }
+        }
+        return Optional.empty();
     }
 
     public void remove(String id) throws NotFoundException {
+        nearCache.evict(id);
         try {
             URIBuilder uriBuilder = new URIBuilder(StringUtils.removeEnd(resolver.getUrl(), "/") + "/" + id);
             URI uri = uriBuilder.build();
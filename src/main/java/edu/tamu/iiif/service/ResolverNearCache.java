@@ -0,0 +1,229 @@
+package edu.tamu.iiif.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.tamu.iiif.model.ResourceMapping;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Bounded in-process cache of resolver mappings in both directions, so a resolver behind a network
+ * call is asked once per resource. Mappings are immutable until removed and kept until evicted for
+ * size or, if configured, not used for a while, resources not found are remembered for a short while
+ * only as they may be created meanwhile. A removal on another instance is only seen once the entry is
+ * evicted here.
+ *
+ * The cache can be warmed up from a snapshot file of one JSON mapping per line, written when the
+ * application stops and read when it is ready.
+ */
+@Service
+public class ResolverNearCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(ResolverNearCache.class);
+
+    private final static String METRIC = "iiif.resolver.near-cache";
+
+    private final static String URL_PREFIX = "url:";
+
+    private final static String ID_PREFIX = "id:";
+
+    private final boolean enabled;
+
+    private final Optional<Path> snapshot;
+
+    private final Cache<String, String> ids;
+
+    private final Cache<String, String> urls;
+
+    private final Cache<String, Boolean> missing;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    // @formatter:off
+    public ResolverNearCache(
+        MeterRegistry meterRegistry,
+        @Value("${iiif.resolver.near-cache.max-entries:100000}") long maxEntries,
+        @Value("${iiif.resolver.near-cache.expire-after-access:0}") long expireAfterAccess,
+        @Value("${iiif.resolver.near-cache.negative-ttl:30000}") long negativeTtl,
+        @Value("${iiif.resolver.near-cache.snapshot:}") String snapshot
+    ) {
+    // @formatter:on
+        this.enabled = maxEntries > 0;
+        this.snapshot = StringUtils.isNotBlank(snapshot) ? Optional.of(Paths.get(snapshot)) : Optional.empty();
+        this.ids = builder(maxEntries, expireAfterAccess).recordStats().build();
+        this.urls = builder(maxEntries, expireAfterAccess).recordStats().build();
+        this.missing = CacheBuilder.newBuilder().maximumSize(Math.max(0, maxEntries)).expireAfterWrite(Math.max(1, negativeTtl), TimeUnit.MILLISECONDS).build();
+        ObjectMapper mapper = new ObjectMapper();
+        this.reader = mapper.readerFor(ResourceMapping.class);
+        this.writer = mapper.writerFor(ResourceMapping.class);
+        GuavaCacheMetrics.monitor(meterRegistry, ids, METRIC, "direction", "id");
+        GuavaCacheMetrics.monitor(meterRegistry, urls, METRIC, "direction", "url");
+    }
+
+    public Optional<String> getId(String url) {
+        return Optional.ofNullable(ids.getIfPresent(url));
+    }
+
+    public Optional<String> getUrl(String id) {
+        return Optional.ofNullable(urls.getIfPresent(id));
+    }
+
+    public boolean isMissingUrl(String url) {
+        return missing.getIfPresent(URL_PREFIX + url) != null;
+    }
+
+    public boolean isMissingId(String id) {
+        return missing.getIfPresent(ID_PREFIX + id) != null;
+    }
+
+    public void put(String id, String url) {
+        if (!enabled || id == null || url == null) {
+            return;
+        }
+        ids.put(url, id);
+        urls.put(id, url);
+        missing.invalidate(URL_PREFIX + url);
+        missing.invalidate(ID_PREFIX + id);
+    }
+
+    /**
+     * Cache mappings by URL, as returned by batch lookups.
+     *
+     * @param idsByUrl
+     */
+    public void putAll(Map<String, String> idsByUrl) {
+        idsByUrl.forEach((url, id) -> put(id, url));
+    }
+
+    public void missingUrl(String url) {
+        if (enabled) {
+            missing.put(URL_PREFIX + url, Boolean.TRUE);
+        }
+    }
+
+    public void missingId(String id) {
+        if (enabled) {
+            missing.put(ID_PREFIX + id, Boolean.TRUE);
+        }
+    }
+
+    public void evict(String id) {
+        Optional<String> url = getUrl(id);
+        urls.invalidate(id);
+        if (url.isPresent()) {
+            ids.invalidate(url.get());
+        }
+        missing.invalidate(ID_PREFIX + id);
+    }
+
+    public long size() {
+        return urls.size();
+    }
+
+    /**
+     * Read mappings from a snapshot, lines that cannot be read are skipped.
+     *
+     * @param path
+     * @return number of read mappings
+     * @throws IOException
+     */
+    public int load(Path path) throws IOException {
+        int count = 0;
+        try (BufferedReader lines = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                try {
+                    ResourceMapping mapping = reader.readValue(line);
+                    put(mapping.getId(), mapping.getUrl());
+                    count++;
+                } catch (IOException e) {
+                    logger.debug("Skipping unreadable snapshot line: {}", e.getMessage());
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write the cached mappings to a snapshot, replacing it once complete.
+     *
+     * @param path
+     * @return number of written mappings
+     * @throws IOException
+     */
+    public int save(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        int count = 0;
+        try (BufferedWriter lines = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : urls.asMap().entrySet()) {
+                lines.write(writer.writeValueAsString(new ResourceMapping(entry.getKey(), entry.getValue())));
+                lines.newLine();
+                count++;
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        if (enabled && snapshot.isPresent() && Files.isReadable(snapshot.get())) {
+            try {
+                logger.info("Warmed up resolver near-cache with {} mappings from {}", load(snapshot.get()), snapshot.get());
+            } catch (IOException e) {
+                logger.warn("Unable to read resolver snapshot {}: {}", snapshot.get(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        if (enabled && snapshot.isPresent() && size() > 0) {
+            try {
+                logger.info("Wrote {} resolver mappings to {}", save(snapshot.get()), snapshot.get());
+            } catch (IOException e) {
+                logger.warn("Unable to write resolver snapshot {}: {}", snapshot.get(), e.getMessage());
+            }
+        }
+    }
+
+    private static CacheBuilder<Object, Object> builder(long maxEntries, long expireAfterAccess) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(Math.max(0, maxEntries));
+        if (expireAfterAccess > 0) {
+            builder.expireAfterAccess(expireAfterAccess, TimeUnit.MILLISECONDS);
+        }
+        return builder;
+    }
+
+}
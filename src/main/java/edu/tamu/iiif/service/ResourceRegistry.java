@@ -0,0 +1,277 @@
+package edu.tamu.iiif.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Resolver ids by URL in a single Redis hash of id to URL, written behind in batches.
+ *
+ * Ids are derived from the URL, so {@link RedisResourceResolver} hands them out at once and only
+ * registers the mapping here. Registrations wait in memory until the next flush writes them with one
+ * HSET per batch, until then they are resolved from memory. Ids known to be stored are not registered
+ * again. When more than the maximum are pending the registering thread flushes, should Redis be
+ * unavailable further registrations are dropped and repeated by the next generation of the manifest.
+ * A generation writes the registrations of its ids before its manifest is stored, so no stored
+ * manifest refers to an id which cannot be resolved.
+ */
+@Service
+public class ResourceRegistry {
+
+    private final static Logger logger = LoggerFactory.getLogger(ResourceRegistry.class);
+
+    public final static String KEY = "iiif-resource";
+
+    private final static String METRIC = "iiif.resolver.registry";
+
+    private final static int MAX_KNOWN = 100000;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final int maxPending;
+
+    private final ConcurrentMap<String, String> pending = new ConcurrentHashMap<String, String>();
+
+    private final Cache<String, Boolean> known = CacheBuilder.newBuilder().maximumSize(MAX_KNOWN).build();
+
+    private final ScheduledExecutorService executor;
+
+    private final Counter registered;
+
+    private final Counter written;
+
+    private final Counter dropped;
+
+    // @formatter:off
+    public ResourceRegistry(
+        StringRedisTemplate redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.resolver.write-behind.enabled:false}") boolean enabled,
+        @Value("${iiif.resolver.write-behind.flush-interval:1000}") long flushInterval,
+        @Value("${iiif.resolver.write-behind.batch-size:1000}") int batchSize,
+        @Value("${iiif.resolver.write-behind.max-pending:100000}") int maxPending
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(1, maxPending);
+        this.registered = meterRegistry.counter(METRIC, "result", "registered");
+        this.written = meterRegistry.counter(METRIC, "result", "written");
+        this.dropped = meterRegistry.counter(METRIC, "result", "dropped");
+        meterRegistry.gaugeMapSize(METRIC + ".pending", Tags.empty(), pending);
+        if (enabled) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "iiif-resource-registry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(10, flushInterval);
+            this.executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the mapping behind, unless the id is known to be stored already.
+     *
+     * @param id
+     * @param url
+     */
+    public void register(String id, String url) {
+        if (known.getIfPresent(id) != null || pending.putIfAbsent(id, url) != null) {
+            return;
+        }
+        registered.increment();
+        if (pending.size() > maxPending && flush() == 0 && pending.size() > maxPending) {
+            pending.remove(id, url);
+            dropped.increment();
+            logger.warn("Too many pending resource registrations, dropped {}", url);
+        }
+    }
+
+    /**
+     * Store the mapping at once.
+     *
+     * @param id
+     * @param url
+     */
+    public void save(String id, String url) {
+        hash().put(KEY, id, url);
+        pending.remove(id);
+        known.put(id, Boolean.TRUE);
+    }
+
+    public Optional<String> get(String id) {
+        String url = pending.get(id);
+        if (url != null) {
+            return Optional.of(url);
+        }
+        return Optional.ofNullable(hash().get(KEY, id));
+    }
+
+    /**
+     * URLs of the ids found, pending ones from memory and the others with one HMGET.
+     *
+     * @param ids
+     * @return
+     */
+    public Map<String, String> getAll(Collection<String> ids) {
+        Map<String, String> urls = new HashMap<String, String>();
+        List<String> stored = new ArrayList<String>();
+        for (String id : ids) {
+            String url = pending.get(id);
+            if (url != null) {
+                urls.put(id, url);
+            } else {
+                stored.add(id);
+            }
+        }
+        if (!stored.isEmpty()) {
+            List<String> found = hash().multiGet(KEY, stored);
+            for (int i = 0; i < stored.size(); i++) {
+                if (found.get(i) != null) {
+                    urls.put(stored.get(i), found.get(i));
+                }
+            }
+        }
+        return urls;
+    }
+
+    public boolean contains(String id) {
+        if (pending.containsKey(id) || known.getIfPresent(id) != null) {
+            return true;
+        }
+        if (hash().hasKey(KEY, id)) {
+            known.put(id, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean remove(String id) {
+        boolean removed = pending.remove(id) != null;
+        known.invalidate(id);
+        Long deleted = hash().delete(KEY, id);
+        return removed || (deleted != null && deleted > 0);
+    }
+
+    /**
+     * Number of stored mappings, pending ones not included.
+     *
+     * @return
+     */
+    public long size() {
+        Long size = hash().size(KEY);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Write pending registrations in batches.
+     *
+     * @return number of written registrations
+     */
+    public synchronized int flush() {
+        int count = 0;
+        while (!pending.isEmpty()) {
+            Map<String, String> batch = new HashMap<String, String>();
+            Iterator<Entry<String, String>> entries = pending.entrySet().iterator();
+            while (entries.hasNext() && batch.size() < batchSize) {
+                Entry<String, String> entry = entries.next();
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                count += write(batch);
+            } catch (DataAccessException e) {
+                logger.warn("Unable to register {} resources: {}", batch.size(), e.getMessage());
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write the registrations of the given ids at once, pending or dropped, unless known to be stored.
+     * Failures are not caught, the caller must not rely on the ids.
+     *
+     * @param urls
+     *            URLs by id
+     * @return number of written registrations
+     */
+    public int flush(Map<String, String> urls) {
+        int count = 0;
+        Map<String, String> batch = new HashMap<String, String>();
+        for (Entry<String, String> entry : urls.entrySet()) {
+            if (known.getIfPresent(entry.getKey()) == null) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == batchSize) {
+                    count += write(batch);
+                    batch = new HashMap<String, String>();
+                }
+            }
+        }
+        return count + write(batch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            flush();
+        }
+    }
+
+    private int write(Map<String, String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        hash().putAll(KEY, batch);
+        batch.forEach((id, url) -> {
+            pending.remove(id, url);
+            known.put(id, Boolean.TRUE);
+        });
+        written.increment(batch.size());
+        return batch.size();
+    }
+
+    private HashOperations<String, String, String> hash() {
+        return redisTemplate.opsForHash();
+    }
+
+}
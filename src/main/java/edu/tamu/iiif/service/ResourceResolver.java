@@ -1,6 +1,9 @@
 package edu.tamu.iiif.service;
 
 import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import edu.tamu.iiif.exception.NotFoundException;
 
@@ -10,8 +13,70 @@ public interface ResourceResolver {
 
     public String create(String url) throws URISyntaxException;
 
+    /**
+     * Id of the URL, created when not found.
+     *
+     * @param url
+     * @return
+     * @throws URISyntaxException
+     */
+    public default String lookupOrCreate(String url) throws URISyntaxException {
+        try {
+            return lookup(url);
+        } catch (NotFoundException e) {
+            return create(url);
+        }
+    }
+
+    /**
+     * Ids of the URLs, created when not found, by URL in the order given.
+     *
+     * @param urls
+     * @return
+     * @throws URISyntaxException
+     */
+    public default Map<String, String> lookupOrCreateAll(Collection<String> urls) throws URISyntaxException {
+        Map<String, String> ids = new LinkedHashMap<String, String>();
+        for (String url : urls) {
+            if (!ids.containsKey(url)) {
+                ids.put(url, lookupOrCreate(url));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Make sure the mappings of ids handed out are stored, resolvers writing them behind write them
+     * now.
+     *
+     * @param ids
+     *            ids by URL
+     */
+    public default void flush(Map<String, String> ids) {
+    }
+
     public String resolve(String id) throws NotFoundException;
 
+    /**
+     * URLs of the ids by id in the order given, ids not found are left out.
+     *
+     * @param ids
+     * @return
+     */
+    public default Map<String, String> resolveAll(Collection<String> ids) {
+        Map<String, String> urls = new LinkedHashMap<String, String>();
+        for (String id : ids) {
+            if (!urls.containsKey(id)) {
+                try {
+                    urls.put(id, resolve(id));
+                } catch (NotFoundException e) {
+                    // left out
+                }
+            }
+        }
+        return urls;
+    }
+
     public void remove(String id) throws NotFoundException;
 
 }
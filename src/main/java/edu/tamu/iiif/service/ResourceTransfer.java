@@ -0,0 +1,358 @@
+package edu.tamu.iiif.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import edu.tamu.iiif.model.RedisResource;
+import edu.tamu.iiif.model.ResourceImport;
+import edu.tamu.iiif.model.ResourceMapping;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Exports and imports the resolver mappings kept in Redis as one JSON mapping per line, in batches so
+ * memory does not grow with the number of mappings.
+ *
+ * The export scans the resource keyspace set and reads the URLs of each batch in one pipeline, then
+ * scans the mappings registered by write-behind which are not stored as resources as well. The import
+ * checks each batch for resources stored already by id or URL in one pipeline and writes the others
+ * in a second one, the same hash, keyspace set and URL index Spring Data writes. Mappings stored
+ * already are skipped, so an interrupted import can be run again. Mappings whose id is not derived
+ * from their URL are rejected, the resolver would never find them by URL. Orphaned index entries of imported
+ * resources expiring are removed by the {@link RedisIndexSweeper}.
+ */
+@Service
+public class ResourceTransfer {
+
+    private final static Logger logger = LoggerFactory.getLogger(ResourceTransfer.class);
+
+    private final static String METRIC = "iiif.resolver.transfer";
+
+    private final static String INDEX = ":url:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ResourceRegistry resourceRegistry;
+
+    private final int batchSize;
+
+    private final long progressInterval;
+
+    private final long ttl;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    private final Counter exported;
+
+    private final Counter imported;
+
+    private final Counter skipped;
+
+    private final Counter invalid;
+
+    private final Counter rejected;
+
+    // @formatter:off
+    public ResourceTransfer(
+        StringRedisTemplate redisTemplate,
+        ResourceRegistry resourceRegistry,
+        MeterRegistry meterRegistry,
+        @Value("${iiif.resolver.transfer.batch-size:1000}") int batchSize,
+        @Value("${iiif.resolver.transfer.progress-interval:100000}") long progressInterval,
+        @Value("${iiif.resolver.ttl:0}") long ttl
+    ) {
+    // @formatter:on
+        this.redisTemplate = redisTemplate;
+        this.resourceRegistry = resourceRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.progressInterval = Math.max(1, progressInterval);
+        this.ttl = ttl;
+        ObjectMapper mapper = new ObjectMapper();
+        this.reader = mapper.readerFor(ResourceMapping.class);
+        this.writer = mapper.writerFor(ResourceMapping.class);
+        this.exported = meterRegistry.counter(METRIC, "result", "exported");
+        this.imported = meterRegistry.counter(METRIC, "result", "imported");
+        this.skipped = meterRegistry.counter(METRIC, "result", "skipped");
+        this.invalid = meterRegistry.counter(METRIC, "result", "invalid");
+        this.rejected = meterRegistry.counter(METRIC, "result", "rejected");
+    }
+
+    /**
+     * Write all mappings, pending registrations are written to Redis first.
+     *
+     * @param out
+     * @return number of exported mappings
+     * @throws IOException
+     */
+    public long export(OutputStream out) throws IOException {
+        if (resourceRegistry.isEnabled()) {
+            resourceRegistry.flush();
+        }
+        Progress progress = new Progress("Exported");
+        Writer lines = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<String> ids = new ArrayList<String>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.opsForSet().scan(RedisResourceResolver.KEYSPACE, scanOptions())) {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next());
+                if (ids.size() == batchSize) {
+                    exportResources(ids, lines, progress);
+                }
+            }
+        }
+        exportResources(ids, lines, progress);
+        Map<String, String> registered = new HashMap<String, String>();
+        try (Cursor<Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(ResourceRegistry.KEY, scanOptions())) {
+            while (cursor.hasNext()) {
+                Entry<Object, Object> entry = cursor.next();
+                registered.put(entry.getKey().toString(), entry.getValue().toString());
+                if (registered.size() == batchSize) {
+                    exportRegistered(registered, lines, progress);
+                }
+            }
+        }
+        exportRegistered(registered, lines, progress);
+        lines.flush();
+        return progress.done();
+    }
+
+    /**
+     * Store the mappings read, lines which are no mapping of an id to a valid URL are counted as
+     * invalid and skipped.
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    public ResourceImport load(InputStream in) throws IOException {
+        ResourceImport result = new ResourceImport();
+        Progress progress = new Progress("Processed");
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<ResourceMapping> mappings = new ArrayList<ResourceMapping>(batchSize);
+        long unreadable = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (StringUtils.isBlank(line)) {
+                continue;
+            }
+            Optional<ResourceMapping> mapping = read(line);
+            if (mapping.isPresent()) {
+                mappings.add(mapping.get());
+            } else {
+                unreadable++;
+            }
+            if (mappings.size() == batchSize) {
+                importResources(mappings, unreadable, result, progress);
+                unreadable = 0;
+            }
+        }
+        importResources(mappings, unreadable, result, progress);
+        progress.done();
+        return result;
+    }
+
+    private void exportResources(List<String> ids, Writer lines, Progress progress) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object> urls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            ids.forEach(id -> connection.hGet(bytes(key(id)), bytes("url")));
+            return null;
+        });
+        int count = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            // ids left in the keyspace set by expired resources have no URL
+            if (urls.get(i) != null) {
+                write(lines, new ResourceMapping(ids.get(i), urls.get(i).toString()));
+                count++;
+            }
+        }
+        ids.clear();
+        exported.increment(count);
+        progress.add(count);
+    }
+
+    private void exportRegistered(Map<String, String> registered, Writer lines, Progress progress) throws IOException {
+        if (registered.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<String>(registered.keySet());
+        List<Object> stored = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            ids.forEach(id -> connection.sIsMember(bytes(RedisResourceResolver.KEYSPACE), bytes(id)));
+            return null;
+        });
+        int count = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            // exported with the resources already
+            if (!Boolean.TRUE.equals(stored.get(i))) {
+                write(lines, new ResourceMapping(ids.get(i), registered.get(ids.get(i))));
+                count++;
+            }
+        }
+        registered.clear();
+        exported.increment(count);
+        progress.add(count);
+    }
+
+    private void importResources(List<ResourceMapping> mappings, long unreadable, ResourceImport result, Progress progress) {
+        List<ResourceMapping> valid = new ArrayList<ResourceMapping>(mappings.size());
+        Set<String> ids = new HashSet<String>();
+        Set<String> urls = new HashSet<String>();
+        long duplicates = 0;
+        long invalids = unreadable;
+        long mismatches = 0;
+        for (ResourceMapping mapping : mappings) {
+            if (StringUtils.isBlank(mapping.getId()) || mapping.getUrl() == null || !RedisResourceResolver.URL_VALIDATOR.isValid(mapping.getUrl())) {
+                invalids++;
+            } else if (!mapping.getId().equals(RedisResource.id(mapping.getUrl()))) {
+                logger.debug("Rejecting mapping of {} to {}, not its derived id", mapping.getUrl(), mapping.getId());
+                mismatches++;
+            } else if (!ids.add(mapping.getId()) || !urls.add(mapping.getUrl())) {
+                duplicates++;
+            } else {
+                valid.add(mapping);
+            }
+        }
+        mappings.clear();
+        List<ResourceMapping> missing = new ArrayList<ResourceMapping>(valid.size());
+        if (!valid.isEmpty()) {
+            List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                valid.forEach(mapping -> {
+                    connection.exists(bytes(key(mapping.getId())));
+                    connection.exists(bytes(index(mapping.getUrl())));
+                });
+                return null;
+            });
+            for (int i = 0; i < valid.size(); i++) {
+                if (Boolean.TRUE.equals(exists.get(2 * i)) || Boolean.TRUE.equals(exists.get(2 * i + 1))) {
+                    duplicates++;
+                } else {
+                    missing.add(valid.get(i));
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                missing.forEach(mapping -> {
+                    byte[] key = bytes(key(mapping.getId()));
+                    byte[] index = bytes(index(mapping.getUrl()));
+                    Map<byte[], byte[]> hash = new HashMap<byte[], byte[]>();
+                    hash.put(bytes("_class"), bytes(RedisResource.class.getName()));
+                    hash.put(bytes("id"), bytes(mapping.getId()));
+                    hash.put(bytes("url"), bytes(mapping.getUrl()));
+                    connection.hMSet(key, hash);
+                    connection.sAdd(bytes(RedisResourceResolver.KEYSPACE), bytes(mapping.getId()));
+                    connection.sAdd(index, bytes(mapping.getId()));
+                    connection.sAdd(bytes(key(mapping.getId()) + ":idx"), index);
+                    if (ttl > 0) {
+                        connection.pExpire(key, ttl);
+                    }
+                });
+                return null;
+            });
+        }
+        imported.increment(missing.size());
+        skipped.increment(duplicates);
+        invalid.increment(invalids);
+        rejected.increment(mismatches);
+        result.add(missing.size(), duplicates, invalids, mismatches);
+        progress.add(missing.size() + duplicates + invalids + mismatches);
+    }
+
+    private Optional<ResourceMapping> read(String line) {
+        try {
+            return Optional.of(reader.readValue(line));
+        } catch (IOException e) {
+            logger.debug("Skipping unreadable mapping: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void write(Writer lines, ResourceMapping mapping) throws IOException {
+        lines.write(writer.writeValueAsString(mapping));
+        lines.write('\n');
+    }
+
+    private ScanOptions scanOptions() {
+        return ScanOptions.scanOptions().count(batchSize).build();
+    }
+
+    private static String key(String id) {
+        return RedisResourceResolver.KEYSPACE + ":" + id;
+    }
+
+    private static String index(String url) {
+        return RedisResourceResolver.KEYSPACE + INDEX + url;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Logs the number of mappings transferred every progress interval.
+     */
+    private class Progress {
+
+        private final String action;
+
+        private final long start = System.currentTimeMillis();
+
+        private long count;
+
+        private long logged;
+
+        private Progress(String action) {
+            this.action = action;
+        }
+
+        private void add(long transferred) {
+            count += transferred;
+            if (count - logged >= progressInterval) {
+                logged = count;
+                logger.info("{} {} resolver mappings, {} per second", action, count, rate());
+            }
+        }
+
+        private long done() {
+            logger.info("{} {} resolver mappings in {} ms", action, count, System.currentTimeMillis() - start);
+            return count;
+        }
+
+        private long rate() {
+            return count * 1000 / Math.max(1, System.currentTimeMillis() - start);
+        }
+
+    }
+
+}
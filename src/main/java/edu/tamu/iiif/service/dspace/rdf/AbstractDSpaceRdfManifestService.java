@@ -3,6 +3,9 @@ package edu.tamu.iiif.service.dspace.rdf;
 import static edu.tamu.iiif.constants.Constants.CANVAS_IDENTIFIER;
 import static edu.tamu.iiif.constants.Constants.COLLECTION_IDENTIFIER;
 import static edu.tamu.iiif.constants.Constants.DSPACE_HAS_BITSTREAM_PREDICATE;
+import static edu.tamu.iiif.constants.Constants.DSPACE_HAS_COLLECTION_PREDICATE;
+import static edu.tamu.iiif.constants.Constants.DSPACE_HAS_ITEM_PREDICATE;
+import static edu.tamu.iiif.constants.Constants.DSPACE_HAS_SUB_COMMUNITY_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.DSPACE_IS_PART_OF_COLLECTION_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.DSPACE_IS_PART_OF_COMMUNITY_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.DSPACE_IS_PART_OF_REPOSITORY_PREDICATE;
@@ -22,6 +25,7 @@ import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.NodeIterator;
@@ -174,6 +178,30 @@ public abstract class AbstractDSpaceRdfManifestService extends AbstractManifestS
         return config;
     }
 
+    @Override
+    protected List<String> getProjectedPredicates() {
+        List<String> predicates = new ArrayList<String>();
+        predicates.add(DSPACE_HAS_BITSTREAM_PREDICATE);
+        predicates.add(DSPACE_IS_PART_OF_COLLECTION_PREDICATE);
+        predicates.add(DSPACE_IS_PART_OF_COMMUNITY_PREDICATE);
+        predicates.add(DSPACE_IS_PART_OF_REPOSITORY_PREDICATE);
+        predicates.add(DSPACE_IS_SUB_COMMUNITY_OF_PREDICATE);
+        switch (getManifestType()) {
+        case COLLECTION:
+            predicates.add(DSPACE_HAS_SUB_COMMUNITY_PREDICATE);
+            predicates.add(DSPACE_HAS_COLLECTION_PREDICATE);
+            predicates.add(DSPACE_HAS_ITEM_PREDICATE);
+            break;
+        case PRESENTATION:
+            predicates.add(DSPACE_HAS_COLLECTION_PREDICATE);
+            predicates.add(DSPACE_HAS_ITEM_PREDICATE);
+            break;
+        default:
+            break;
+        }
+        return predicates;
+    }
+
     private URI getDSpaceIiifUri(String handle, String type) throws URISyntaxException {
         return URI.create(getIiifServiceUrl() + "/" + type + "/" + handle);
     }
@@ -182,19 +210,28 @@ public abstract class AbstractDSpaceRdfManifestService extends AbstractManifestS
         List<Canvas> canvases = new ArrayList<Canvas>();
         // NOTE: canvas per bitstream and bitstreams uri must contain the context handle path of the desired resource
         String contextHandlePath = encodeSpaces(getHandlePath(rdfResource.getId()));
+        List<String> bitstreamUris = new ArrayList<String>();
+        List<Callable<CanvasWithInfo>> canvasTasks = new ArrayList<Callable<CanvasWithInfo>>();
         NodeIterator bitstreamIterator = rdfResource.getAllNodesOfPropertyWithId(DSPACE_HAS_BITSTREAM_PREDICATE);
         while (bitstreamIterator.hasNext()) {
             String uri = bitstreamIterator.next().toString();
             if (uri.contains(contextHandlePath)) {
-                CanvasWithInfo canvasWithInfo = generateCanvas(request, new RdfResource(rdfResource, uri), 0);
-                if (canvasWithInfo.getCanvasInfo().isPresent() && canvasWithInfo.getCanvasInfo().get().has("page_count")) {
-                    int pageCount = canvasWithInfo.getCanvasInfo().get().at("/page_count").asInt();
-                    for (int page = 1; page <= pageCount; ++page) {
-                        canvases.add(getCanvasPage(canvasWithInfo.getCanvas(), page));
-                    }
-                } else if (canvasWithInfo.getCanvas().getImages().size() > 0) {
-                    canvases.add(canvasWithInfo.getCanvas());
+                RdfResource bitstreamRdfResource = new RdfResource(rdfResource, uri);
+                bitstreamUris.add(uri);
+                canvasTasks.add(() -> generateCanvas(request, bitstreamRdfResource, 0));
+            }
+        }
+        // NOTE: resolver ids of all images of the sequence are resolved in one call
+        resolveResourceIds(request, bitstreamUris);
+        // NOTE: canvases are generated concurrently, results are in bitstream order
+        for (CanvasWithInfo canvasWithInfo : invokeAll(canvasTasks)) {
+            if (canvasWithInfo.getCanvasInfo().isPresent() && canvasWithInfo.getCanvasInfo().get().has("page_count")) {
+                int pageCount = canvasWithInfo.getCanvasInfo().get().at("/page_count").asInt();
+                for (int page = 1; page <= pageCount; ++page) {
+                    canvases.add(getCanvasPage(canvasWithInfo.getCanvas(), page));
                 }
+            } else if (canvasWithInfo.getCanvas().getImages().size() > 0) {
+                canvases.add(canvasWithInfo.getCanvas());
             }
         }
         return canvases;
@@ -9,13 +9,14 @@ import org.springframework.stereotype.Service;
 
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.model.CanvasWithInfo;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfResource;
 
 @Service
 public class DSpaceRdfCanvasManifestService extends AbstractDSpaceRdfManifestService {
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         String context = request.getContext();
         String handle = extractHandle(context);
         RdfResource rdfResource = getRdfResourceByContextPath(handle);
@@ -24,7 +25,7 @@ public class DSpaceRdfCanvasManifestService extends AbstractDSpaceRdfManifestSer
             .replaceAll(handle, context);
 
         CanvasWithInfo canvasWithInfo = generateCanvas(request, new RdfResource(rdfResource, uri), 0);
-        return mapper.writeValueAsString(canvasWithInfo.getCanvas());
+        return writeManifest(canvasWithInfo.getCanvas());
     }
 
     private String extractHandle(String context) {
@@ -26,6 +26,7 @@ import de.digitalcollections.iiif.presentation.model.impl.v2.references.Collecti
 import de.digitalcollections.iiif.presentation.model.impl.v2.references.ManifestReferenceImpl;
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfResource;
 import edu.tamu.iiif.utility.RdfModelUtility;
@@ -34,8 +35,8 @@ import edu.tamu.iiif.utility.RdfModelUtility;
 public class DSpaceRdfCollectionManifestService extends AbstractDSpaceRdfManifestService {
 
     @Override
-    protected String generateManifest(ManifestRequest request) throws URISyntaxException, IOException {
-        return mapper.writeValueAsString(generateCollection(request));
+    protected ManifestBody generateManifest(ManifestRequest request) throws URISyntaxException, IOException {
+        return writeManifest(generateCollection(request));
     }
 
     private Collection generateCollection(ManifestRequest request) throws URISyntaxException, NotFoundException {
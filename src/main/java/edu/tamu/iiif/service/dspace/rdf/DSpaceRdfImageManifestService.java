@@ -10,16 +10,17 @@ import java.net.URISyntaxException;
 import org.springframework.stereotype.Service;
 
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 
 @Service
 public class DSpaceRdfImageManifestService extends AbstractDSpaceRdfManifestService {
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         String context = request.getContext();
         String dspacePath = config.getWebapp() != null && config.getWebapp().length() > 0 ? joinPath(config.getUrl(), config.getWebapp(), "bitstream", context) : joinPath(config.getUrl(), "bitstream", context);
         URI uri = getImageUri(dspacePath);
-        return fetchImageInfo(uri.toString());
+        return writeJson(fetchImageInfo(uri.toString()));
     }
 
     @Override
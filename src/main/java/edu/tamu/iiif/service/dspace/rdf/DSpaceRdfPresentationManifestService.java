@@ -23,6 +23,7 @@ import de.digitalcollections.iiif.presentation.model.impl.v2.ManifestImpl;
 import de.digitalcollections.iiif.presentation.model.impl.v2.PropertyValueSimpleImpl;
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfResource;
 import edu.tamu.iiif.utility.RdfModelUtility;
@@ -30,7 +31,7 @@ import edu.tamu.iiif.utility.RdfModelUtility;
 @Service
 public class DSpaceRdfPresentationManifestService extends AbstractDSpaceRdfManifestService {
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         String context = request.getContext();
 
         String parameterizedContext = RdfModelUtility.getParameterizedId(request);
@@ -72,7 +73,7 @@ public class DSpaceRdfPresentationManifestService extends AbstractDSpaceRdfManif
             manifest.setLicense(license.get());
         }
 
-        return mapper.writeValueAsString(manifest);
+        return writeManifest(manifest);
     }
 
     private List<Sequence> getSequences(ManifestRequest request, RdfResource rdfResource) throws IOException, URISyntaxException {
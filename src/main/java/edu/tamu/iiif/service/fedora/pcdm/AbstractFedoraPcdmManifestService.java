@@ -26,8 +26,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.Base64;
 import java.nio.charset.StandardCharsets;
 import java.net.URLDecoder;
@@ -46,7 +50,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestClientException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +73,7 @@ import edu.tamu.iiif.model.rdf.RdfCanvas;
 import edu.tamu.iiif.model.rdf.RdfOrderedResource;
 import edu.tamu.iiif.model.rdf.RdfResource;
 import edu.tamu.iiif.service.AbstractManifestService;
+import edu.tamu.iiif.service.GenerationTaskExecutor;
 import edu.tamu.iiif.utility.RdfModelUtility;
 
 @ConditionalOnExpression(FEDORA_PCDM_CONDITION)
@@ -205,19 +209,38 @@ public abstract class AbstractFedoraPcdmManifestService extends AbstractManifest
         return config;
     }
 
+    @Override
+    protected List<String> getProjectedPredicates() {
+        List<String> predicates = new ArrayList<String>();
+        predicates.add(RDF_TYPE_PREDICATE);
+        predicates.add(LDP_CONTAINS_PREDICATE);
+        predicates.add(LDP_HAS_MEMBER_RELATION_PREDICATE);
+        predicates.add(PCDM_HAS_FILE_PREDICATE);
+        predicates.add(PCDM_HAS_MEMBER_PREDICATE);
+        predicates.add(IANA_FIRST_PREDICATE);
+        predicates.add(IANA_LAST_PREDICATE);
+        predicates.add(IANA_NEXT_PREDICATE);
+        predicates.add(ORE_PROXY_FOR_PREDICATE);
+        predicates.add(ORE_PROXY_FOR_PREDICATE.replace("#", "/"));
+        return predicates;
+    }
+
     protected Optional<List<String>> getLinks(String url) {
-        try {
-            url = URLDecoder.decode(url, StandardCharsets.UTF_8);
-            HttpHeaders authHeaders = getAuthHeaders();
-            HttpEntity<String> request = new HttpEntity<String>(authHeaders);
-            // TODO: Support pulling the Link headers from the redirect response rather than the redirected response
-            //       when handling="redirect" is used in Fedroa 6 External binaries
-            Optional<ResponseEntity<String>> response = Optional.ofNullable(restTemplate.exchange(url, HttpMethod.HEAD, request,  String.class));
-            HttpHeaders headers = response.get().getHeaders();
-            return Optional.ofNullable(headers.get(HttpHeaders.LINK));
-        } catch (RestClientException e) {
-            return Optional.empty();
+        url = URLDecoder.decode(url, StandardCharsets.UTF_8);
+        // TODO: Support pulling the Link headers from the redirect response rather than the redirected response
+        //       when handling="redirect" is used in Fedroa 6 External binaries
+        return getHeadMetadata(url).getLinks();
+    }
+
+    @Override
+    protected HttpHeaders head(String url) {
+        HttpHeaders authHeaders = getAuthHeaders();
+        if (authHeaders.isEmpty()) {
+            return super.head(url);
         }
+        HttpEntity<String> request = new HttpEntity<String>(authHeaders);
+        Optional<ResponseEntity<String>> response = Optional.ofNullable(restTemplate.exchange(url, HttpMethod.HEAD, request, String.class));
+        return response.isPresent() ? response.get().getHeaders() : null;
     }
 
     private HttpHeaders getAuthHeaders() {
@@ -234,29 +257,15 @@ public abstract class AbstractFedoraPcdmManifestService extends AbstractManifest
     }
 
     @Override
-    protected String getRdf(String url) throws NotFoundException {
-        try {
-            url = URLDecoder.decode(url, StandardCharsets.UTF_8);
-            HttpHeaders headers = getAuthHeaders();
-            HttpEntity<String> request = new HttpEntity<String>(headers);
-
-            if(isBinary(url) && config.getVersion() == 6) {
-                url = url + FEDORA_FCR_METADATA;
-            }
-
-            //Optional<String> rdf = Optional.ofNullable(restTemplate.getForObject(url, String.class));
-            Optional<ResponseEntity<String>> response = Optional.ofNullable(restTemplate.exchange(url, HttpMethod.GET, request,  String.class));
-            Optional<String> rdf = Optional.ofNullable(response.get().getBody());
+    protected ResponseEntity<Model> getRdf(String url, HttpHeaders conditionalHeaders) throws NotFoundException {
+        HttpHeaders headers = getAuthHeaders();
+        headers.addAll(conditionalHeaders);
 
-            if (rdf.isPresent()) {
-                logger.trace("RDF for {}: \n{}\n", url, rdf.get());
-                return rdf.get();
-            }
-        } catch (RestClientException e) {
-            logger.error("Failed to get RDF for {}: {}", url, e.getMessage());
-            logger.debug("Error while requesting RDF for {}: {}", url, e.getMessage(), e);
+        if(isBinary(url) && config.getVersion() == 6) {
+            url = url + FEDORA_FCR_METADATA;
         }
-        throw new NotFoundException("RDF not found! " + url);
+
+        return requestRdf(url, headers);
     }
 
     protected boolean isBinary(String url) {
@@ -274,6 +283,51 @@ public abstract class AbstractFedoraPcdmManifestService extends AbstractManifest
     }
 
 
+    /**
+     * Iteratively walk the iana:first/iana:next proxy chain of an ordered resource. The chain is fetched
+     * sequentially, while the task for each proxied resource runs concurrently. Results are in chain order.
+     *
+     * @param rdfOrderedResource
+     * @param proxiedTask
+     * @return
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    protected <T> List<T> walkOrderedProxies(RdfOrderedResource rdfOrderedResource, Function<String, Callable<T>> proxiedTask) throws IOException, URISyntaxException {
+        GenerationTaskExecutor.GenerationBatch<T> batch = generationBatch();
+        Set<String> visited = new HashSet<String>();
+        Optional<String> proxyId = Optional.of(rdfOrderedResource.getFirstId());
+        try {
+            while (proxyId.isPresent()) {
+                String currentId = proxyId.get();
+                if (!visited.add(currentId)) {
+                    logger.warn("Ordered proxy chain of {} contains a cycle at {}", rdfOrderedResource.getId(), currentId);
+                    break;
+                }
+                rdfOrderedResource.setResource(rdfOrderedResource.getModel().getResource(currentId));
+                rdfOrderedResource.setCurrentId(currentId);
+
+                Model proxyModel = getFedoraRdfModel(currentId);
+
+                Optional<String> id = findObject(proxyModel, ORE_PROXY_FOR_PREDICATE);
+                if (!id.isPresent()) {
+                    id = findObject(proxyModel, ORE_PROXY_FOR_PREDICATE.replace("#", "/"));
+                }
+                if (!id.isPresent()) {
+                    break;
+                }
+
+                batch.submit(proxiedTask.apply(id.get()));
+
+                proxyId = findObject(proxyModel, IANA_NEXT_PREDICATE);
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            batch.cancel();
+            throw e;
+        }
+        return batch.join();
+    }
+
     // TODO: update to match getDSpaceIiifUrl
     private URI getFedoraIiifUri(String url, String type) throws URISyntaxException {
         return URI.create(url.replace(config.getUrl() + "/", getIiifServiceUrl() + "/" + type + "/"));
@@ -285,7 +339,7 @@ public abstract class AbstractFedoraPcdmManifestService extends AbstractManifest
         Optional<String> lastId = findObject(rdfResource.getModel(), IANA_LAST_PREDICATE);
         if (firstId.isPresent() && lastId.isPresent()) {
             Resource firstResource = rdfResource.getModel().getResource(firstId.get());
-            generateOrderedCanvases(request, new RdfOrderedResource(rdfResource.getModel(), firstResource, firstId.get(), lastId.get()), canvases);
+            canvases.addAll(generateOrderedCanvases(request, new RdfOrderedResource(rdfResource.getModel(), firstResource, firstId.get(), lastId.get())));
         }
         if (canvases.isEmpty()) {
             NodeIterator nodes = rdfResource.getNodesOfPropertyWithId(PCDM_HAS_MEMBER_PREDICATE);
@@ -318,32 +372,18 @@ public abstract class AbstractFedoraPcdmManifestService extends AbstractManifest
         return canvases;
     }
 
-    private void generateOrderedCanvases(ManifestRequest request, RdfOrderedResource rdfOrderedSequence, List<Canvas> canvases) throws IOException, URISyntaxException {
-
-        Model model = getFedoraRdfModel(rdfOrderedSequence.getResource().getURI());
-        Optional<String> id = findObject(model, ORE_PROXY_FOR_PREDICATE);
-        if (!id.isPresent()) {
-            id = findObject(model, ORE_PROXY_FOR_PREDICATE);
-        }
-
-        if (id.isPresent()) {
-
-            Model orderedModel = getFedoraRdfModel(id.get());
-            CanvasWithInfo canvasWithInfo = generateCanvas(request, new RdfResource(orderedModel, id.get()), 0);
+    private List<Canvas> generateOrderedCanvases(ManifestRequest request, RdfOrderedResource rdfOrderedResource) throws IOException, URISyntaxException {
+        List<Canvas> canvases = new ArrayList<Canvas>();
+        List<CanvasWithInfo> orderedCanvases = walkOrderedProxies(rdfOrderedResource, id -> () -> {
+            Model orderedModel = getFedoraRdfModel(id);
+            return generateCanvas(request, new RdfResource(orderedModel, id), 0);
+        });
+        for (CanvasWithInfo canvasWithInfo : orderedCanvases) {
             if (canvasWithInfo.getCanvas().getImages().size() > 0) {
                 canvases.add(canvasWithInfo.getCanvas());
             }
-
-            Optional<String> nextId = findObject(model, IANA_NEXT_PREDICATE);
-
-            if (nextId.isPresent()) {
-                Resource resource = rdfOrderedSequence.getModel().getResource(nextId.get());
-                rdfOrderedSequence.setResource(resource);
-                rdfOrderedSequence.setCurrentId(nextId.get());
-                generateOrderedCanvases(request, rdfOrderedSequence, canvases);
-            }
         }
-
+        return canvases;
     }
 
     private RdfCanvas getFedoraRdfCanvas(ManifestRequest request, RdfResource rdfResource, int page) throws URISyntaxException, JsonProcessingException, MalformedURLException, IOException {
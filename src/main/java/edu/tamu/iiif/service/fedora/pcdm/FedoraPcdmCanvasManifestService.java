@@ -9,17 +9,18 @@ import org.springframework.stereotype.Service;
 
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.model.CanvasWithInfo;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfResource;
 
 @Service
 public class FedoraPcdmCanvasManifestService extends AbstractFedoraPcdmManifestService {
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         String context = request.getContext();
         RdfResource rdfResource = getRdfResourceByContextPath(context);
         CanvasWithInfo canvasWithInfo = generateCanvas(request, rdfResource, 0);
-        return mapper.writeValueAsString(canvasWithInfo.getCanvas());
+        return writeManifest(canvasWithInfo.getCanvas());
     }
 
     @Override
@@ -2,8 +2,6 @@ package edu.tamu.iiif.service.fedora.pcdm;
 
 import static edu.tamu.iiif.constants.Constants.IANA_FIRST_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.IANA_LAST_PREDICATE;
-import static edu.tamu.iiif.constants.Constants.IANA_NEXT_PREDICATE;
-import static edu.tamu.iiif.constants.Constants.ORE_PROXY_FOR_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.PCDM_HAS_FILE_PREDICATE;
 import static edu.tamu.iiif.constants.Constants.PCDM_HAS_MEMBER_PREDICATE;
 import static edu.tamu.iiif.model.ManifestType.COLLECTION;
@@ -33,6 +31,7 @@ import de.digitalcollections.iiif.presentation.model.impl.v2.references.Collecti
 import de.digitalcollections.iiif.presentation.model.impl.v2.references.ManifestReferenceImpl;
 import edu.tamu.iiif.controller.ManifestRequest;
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfOrderedResource;
 import edu.tamu.iiif.model.rdf.RdfResource;
@@ -42,8 +41,8 @@ import edu.tamu.iiif.utility.RdfModelUtility;
 public class FedoraPcdmCollectionManifestService extends AbstractFedoraPcdmManifestService {
 
     @Override
-    protected String generateManifest(ManifestRequest request) throws URISyntaxException, IOException {
-        return mapper.writeValueAsString(generateCollection(request));
+    protected ManifestBody generateManifest(ManifestRequest request) throws URISyntaxException, IOException {
+        return writeManifest(generateCollection(request));
     }
 
     private Collection generateCollection(ManifestRequest request) throws URISyntaxException, IOException {
@@ -135,41 +134,17 @@ public class FedoraPcdmCollectionManifestService extends AbstractFedoraPcdmManif
 
             if (lastId.isPresent()) {
                 Resource firstResource = rdfResource.getModel().getResource(firstId.get());
-                gatherResourceManifests(request, new RdfOrderedResource(rdfResource.getModel(), firstResource, firstId.get(), lastId.get()), manifests);
+                RdfOrderedResource rdfOrderedResource = new RdfOrderedResource(rdfResource.getModel(), firstResource, firstId.get(), lastId.get());
+                manifests.addAll(walkOrderedProxies(rdfOrderedResource, id -> () -> {
+                    String parameterizedActualId = RdfModelUtility.getParameterizedId(id, request);
+                    return new ManifestReferenceImpl(getFedoraIiifPresentationUri(parameterizedActualId), getLabel(getRdfResourceByUrl(id)));
+                }));
             }
         }
 
         return manifests;
     }
 
-    private void gatherResourceManifests(ManifestRequest request, RdfOrderedResource rdfOrderedResource, List<ManifestReference> manifests) throws IOException, URISyntaxException {
-
-        Model model = getFedoraRdfModel(rdfOrderedResource.getResource().getURI());
-
-        Optional<String> id = findObject(model, ORE_PROXY_FOR_PREDICATE);
-
-        if (!id.isPresent()) {
-            id = findObject(model, ORE_PROXY_FOR_PREDICATE.replace("#", "/"));
-        }
-
-        if (id.isPresent()) {
-
-            String parameterizedActualId = RdfModelUtility.getParameterizedId(id.get(), request);
-
-            manifests.add(new ManifestReferenceImpl(getFedoraIiifPresentationUri(parameterizedActualId), getLabel(getRdfResourceByUrl(id.get()))));
-
-            Optional<String> nextId = findObject(model, IANA_NEXT_PREDICATE);
-
-            if (nextId.isPresent()) {
-                Resource resource = rdfOrderedResource.getModel().getResource(nextId.get());
-                rdfOrderedResource.setResource(resource);
-                rdfOrderedResource.setCurrentId(nextId.get());
-                gatherResourceManifests(request, rdfOrderedResource, manifests);
-            }
-        }
-
-    }
-
     private List<CollectionReference> getSubcollections(RdfResource rdfResource) throws URISyntaxException, NotFoundException {
         List<CollectionReference> subcollections = new ArrayList<CollectionReference>();
         // TODO: follow order proxy if iana available
@@ -10,6 +10,7 @@ import java.net.URISyntaxException;
 import org.springframework.stereotype.Service;
 
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 
 import org.slf4j.Logger;
@@ -21,14 +22,14 @@ public class FedoraPcdmImageManifestService extends AbstractFedoraPcdmManifestSe
 
     private final static Logger logger = LoggerFactory.getLogger(FedoraPcdmImageManifestService.class);
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         logger.debug("request"  + request.toString());
         String context = request.getContext();
         logger.debug("CONTEXT " + context);
         String fedoraPath = joinPath(config.getUrl(), context);
         URI uri = getImageUri(fedoraPath);
         logger.debug("URI " + uri.toString());
-        return fetchImageInfo(uri.toString());
+        return writeJson(fetchImageInfo(uri.toString()));
     }
 
     @Override
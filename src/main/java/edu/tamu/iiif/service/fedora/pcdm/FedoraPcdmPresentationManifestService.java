@@ -21,6 +21,7 @@ import de.digitalcollections.iiif.presentation.model.api.v2.Thumbnail;
 import de.digitalcollections.iiif.presentation.model.impl.v2.ManifestImpl;
 import de.digitalcollections.iiif.presentation.model.impl.v2.PropertyValueSimpleImpl;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.rdf.RdfResource;
 import edu.tamu.iiif.utility.RdfModelUtility;
@@ -35,7 +36,7 @@ public class FedoraPcdmPresentationManifestService extends AbstractFedoraPcdmMan
 
     private static final Logger logger = LoggerFactory.getLogger(FedoraPcdmPresentationManifestService.class);
 
-    public String generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
+    public ManifestBody generateManifest(ManifestRequest request) throws IOException, URISyntaxException {
         String context = request.getContext();
 
         String parameterizedContext = RdfModelUtility.getParameterizedId(request);
@@ -99,7 +100,7 @@ public class FedoraPcdmPresentationManifestService extends AbstractFedoraPcdmMan
             manifest.setLicense(license.get());
         }
 
-        return mapper.writeValueAsString(manifest);
+        return writeManifest(manifest);
     }
 
     private List<Sequence> getSequences(ManifestRequest request, RdfResource rdfResource) throws IOException, URISyntaxException {
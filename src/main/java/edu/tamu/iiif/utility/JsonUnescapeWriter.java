@@ -0,0 +1,171 @@
+package edu.tamu.iiif.utility;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Undoes JSON string escapes while writing, the streaming counterpart of
+ * {@link StringUtility#unescapeJson(String)} with the same output for what Jackson writes.
+ *
+ * Like StringEscapeUtils.unescapeJson a backslash followed by b, t, n, f or r becomes the control
+ * character, by u and four hex digits the unicode character, by up to three octal digits the octal
+ * character and by anything else that character, a trailing backslash is dropped.
+ */
+public class JsonUnescapeWriter extends FilterWriter {
+
+    private final static int NONE = 0;
+
+    private final static int ESCAPE = 1;
+
+    private final static int UNICODE = 2;
+
+    private final static int OCTAL = 3;
+
+    private int state = NONE;
+
+    private final StringBuilder sequence = new StringBuilder(4);
+
+    public JsonUnescapeWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        switch (state) {
+        case ESCAPE:
+            escape((char) c);
+            break;
+        case UNICODE:
+            unicode((char) c);
+            break;
+        case OCTAL:
+            octal((char) c);
+            break;
+        case NONE:
+        default:
+            if (c == '\\') {
+                state = ESCAPE;
+            } else {
+                out.write(c);
+            }
+            break;
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (state != NONE) {
+                write(cbuf[i++]);
+                continue;
+            }
+            int start = i;
+            while (i < end && cbuf[i] != '\\') {
+                i++;
+            }
+            if (i > start) {
+                out.write(cbuf, start, i - start);
+            }
+            if (i < end) {
+                state = ESCAPE;
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        char[] chars = new char[len];
+        str.getChars(off, off + len, chars, 0);
+        write(chars, 0, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (state == UNICODE) {
+            throw new IOException("Less than 4 hex digits in unicode value: '\\u" + sequence + "'");
+        }
+        if (state == OCTAL) {
+            writeOctal();
+        }
+        state = NONE;
+        super.close();
+    }
+
+    private void escape(char c) throws IOException {
+        state = NONE;
+        switch (c) {
+        case 'b':
+            out.write('\b');
+            break;
+        case 't':
+            out.write('\t');
+            break;
+        case 'n':
+            out.write('\n');
+            break;
+        case 'f':
+            out.write('\f');
+            break;
+        case 'r':
+            out.write('\r');
+            break;
+        case 'u':
+            sequence.setLength(0);
+            state = UNICODE;
+            break;
+        default:
+            if (c >= '0' && c <= '7') {
+                sequence.setLength(0);
+                sequence.append(c);
+                state = OCTAL;
+            } else {
+                out.write(c);
+            }
+            break;
+        }
+    }
+
+    private void unicode(char c) throws IOException {
+        if (sequence.length() == 0 && (c == 'u' || c == '+')) {
+            // repeated u and a plus sign before the hex digits are accepted
+            if (c == '+') {
+                sequence.append(c);
+            }
+            return;
+        }
+        if (sequence.length() == 1 && sequence.charAt(0) == '+') {
+            sequence.setLength(0);
+        }
+        if (Character.digit(c, 16) < 0) {
+            throw new IOException("Unable to parse unicode value: \\u" + sequence + c);
+        }
+        sequence.append(c);
+        if (sequence.length() == 4) {
+            out.write(Integer.parseInt(sequence.toString(), 16));
+            state = NONE;
+        }
+    }
+
+    private void octal(char c) throws IOException {
+        int max = sequence.charAt(0) <= '3' ? 3 : 2;
+        if (c >= '0' && c <= '7' && sequence.length() < max) {
+            sequence.append(c);
+            if (sequence.length() == max) {
+                writeOctal();
+            }
+            return;
+        }
+        writeOctal();
+        write(c);
+    }
+
+    private void writeOctal() throws IOException {
+        out.write(Integer.parseInt(sequence.toString(), 8));
+        state = NONE;
+    }
+
+}
@@ -12,8 +12,15 @@ import java.util.stream.Collectors;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.NodeIterator;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.springframework.http.MediaType;
 
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.rdf.RdfProjection;
 import edu.tamu.iiif.model.rdf.RdfResource;
 
 public class RdfModelUtility {
@@ -25,6 +32,28 @@ public class RdfModelUtility {
         return model;
     }
 
+    public static Model createRdfModel(InputStream stream, Optional<MediaType> contentType) {
+        return createRdfModel(stream, contentType, Optional.empty());
+    }
+
+    public static Model createRdfModel(InputStream stream, Optional<MediaType> contentType, Optional<RdfProjection> projection) {
+        Model model = ModelFactory.createDefaultModel();
+        StreamRDF destination = StreamRDFLib.graph(model.getGraph());
+        RDFParser.source(stream).lang(getRdfLang(contentType)).parse(projection.isPresent() ? projection.get().project(destination) : destination);
+        return model;
+    }
+
+    public static Lang getRdfLang(Optional<MediaType> contentType) {
+        // text/plain and generic types are too often mislabeled Turtle to trust them for N-Triples
+        if (contentType.isPresent() && !contentType.get().isWildcardSubtype() && !MediaType.TEXT_PLAIN.includes(contentType.get()) && !MediaType.APPLICATION_OCTET_STREAM.includes(contentType.get())) {
+            Lang lang = RDFLanguages.contentTypeToLang(contentType.get().getType() + "/" + contentType.get().getSubtype());
+            if (lang != null) {
+                return lang;
+            }
+        }
+        return Lang.TURTLE;
+    }
+
     public static boolean hasObject(Model model, String uri) {
         NodeIterator firstNodeItr = model.listObjectsOfProperty(model.getProperty(uri));
         if (firstNodeItr.hasNext()) {
@@ -2,6 +2,8 @@ package edu.tamu.iiif.utility;
 
 import java.util.Base64;
 
+import org.apache.commons.text.StringEscapeUtils;
+
 public class StringUtility {
 
     public static String joinPath(String... parts) {
@@ -20,4 +22,18 @@ public class StringUtility {
         return value.replace(" ", "%20");
     }
 
+    /**
+     * Same as {@link StringEscapeUtils#unescapeJson(String)}, returning the value itself when there is
+     * no backslash to unescape rather than copying it character by character.
+     *
+     * @param value
+     * @return
+     */
+    public static String unescapeJson(String value) {
+        if (value == null || value.indexOf('\\') < 0) {
+            return value;
+        }
+        return StringEscapeUtils.unescapeJson(value);
+    }
+
 }
@@ -0,0 +1,111 @@
+package edu.tamu.iiif.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.text.StringEscapeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.ManifestType;
+import edu.tamu.iiif.model.RedisManifest;
+
+/**
+ * Compares the work done on a manifest cache hit between Redis and the servlet output stream, the
+ * network round trip to Redis left out.
+ *
+ * inline: the manifest deserialized with its JSON from one value, unescaped and copied on every
+ * response as before. stored: the manifest deserialized without its JSON and the stored body written
+ * as is. decoded: a gzip stored body decompressed for a client not accepting gzip.
+ *
+ * Run after test-compile with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=edu.tamu.iiif.benchmark.ManifestResponseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManifestResponseBenchmark {
+
+    @Param({ "dspace/json/collection.json", "dspace/json/presentation.json", "fedora/json/presentation.json" })
+    private String fixture;
+
+    @Param({ "none", "gzip" })
+    private String compression;
+
+    private GenericJackson2JsonRedisSerializer serializer;
+
+    private byte[] inline;
+
+    private byte[] head;
+
+    private ManifestBody body;
+
+    @Setup
+    public void setup() throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get("src/test/resources/mock", fixture)), StandardCharsets.UTF_8);
+        serializer = new GenericJackson2JsonRedisSerializer();
+
+        RedisManifest manifest = new RedisManifest("MTIzNDU2Nzg5LzE1ODMwOA==", ManifestType.PRESENTATION, "dspace-rdf", json);
+        inline = serializer.serialize(manifest);
+
+        body = ManifestBody.encode(json, ManifestEncoding.of(compression));
+        manifest.setJson(null);
+        manifest.setEncoding(body.getEncoding());
+        head = serializer.serialize(manifest);
+    }
+
+    @Benchmark
+    public Object inline() throws IOException {
+        RedisManifest manifest = serializer.deserialize(inline, RedisManifest.class);
+        InputStream inputStream = new ByteArrayInputStream(StringEscapeUtils.unescapeJson(manifest.getJson()).getBytes(StandardCharsets.UTF_8));
+        IOUtils.copy(inputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+        return manifest;
+    }
+
+    @Benchmark
+    public Object stored() throws IOException {
+        RedisManifest manifest = serializer.deserialize(head, RedisManifest.class);
+        NullOutputStream.NULL_OUTPUT_STREAM.write(body.getBytes());
+        return manifest;
+    }
+
+    @Benchmark
+    public Object decoded() throws IOException {
+        RedisManifest manifest = serializer.deserialize(head, RedisManifest.class);
+        try (InputStream inputStream = body.openStream()) {
+            IOUtils.copy(inputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+        }
+        return manifest;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ManifestResponseBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
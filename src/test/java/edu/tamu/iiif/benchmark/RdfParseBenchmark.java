@@ -0,0 +1,79 @@
+package edu.tamu.iiif.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.MediaType;
+
+import edu.tamu.iiif.utility.RdfModelUtility;
+
+/**
+ * Compares parse time of the mock RDF fixtures in each serialization the upstream fetch can negotiate.
+ * The fixtures are Turtle and are re-serialized once per trial, so every format parses the same graph.
+ *
+ * Run after test-compile with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=edu.tamu.iiif.benchmark.RdfParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RdfParseBenchmark {
+
+    @Param({ "dspace/rdf/community.rdf", "dspace/rdf/item.rdf", "fedora/rdf/collection_container.rdf", "fedora/rdf/item_container.rdf" })
+    private String fixture;
+
+    @Param({ "text/turtle", "application/n-triples", "application/rdf+xml", "application/rdf+thrift" })
+    private String contentType;
+
+    private byte[] rdf;
+
+    private Optional<MediaType> mediaType;
+
+    @Setup
+    public void setup() throws IOException {
+        Model model = RdfModelUtility.createRdfModel(new String(Files.readAllBytes(Paths.get("src/test/resources/mock", fixture)), StandardCharsets.UTF_8));
+        Lang lang = RDFLanguages.contentTypeToLang(contentType);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDFDataMgr.write(out, model, lang);
+        rdf = out.toByteArray();
+        mediaType = Optional.of(MediaType.valueOf(contentType));
+    }
+
+    @Benchmark
+    public Model parse() {
+        return RdfModelUtility.createRdfModel(new ByteArrayInputStream(rdf), mediaType);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RdfParseBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,26 @@
+package edu.tamu.iiif.config.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestType;
+
+@ExtendWith(SpringExtension.class)
+public class CacheControlConfigTest {
+
+    @Test
+    public void testCacheControlConfig() {
+        CacheControlConfig cacheControlConfig = new CacheControlConfig();
+        assertEquals("public, no-cache", cacheControlConfig.getFallback());
+        assertEquals("public, no-cache", cacheControlConfig.getCacheControl(ManifestType.COLLECTION));
+
+        cacheControlConfig.setFallback("public, max-age=300");
+        cacheControlConfig.getTypes().put(ManifestType.COLLECTION, "public, max-age=3600");
+        assertEquals("public, max-age=3600", cacheControlConfig.getCacheControl(ManifestType.COLLECTION));
+        assertEquals("public, max-age=300", cacheControlConfig.getCacheControl(ManifestType.PRESENTATION));
+    }
+
+}
@@ -0,0 +1,44 @@
+package edu.tamu.iiif.config.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.config.model.ConnectionPoolConfig.PoolProfile;
+
+@ExtendWith(SpringExtension.class)
+public class ConnectionPoolConfigTest {
+
+    @Test
+    public void testConnectionPoolConfig() {
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        assertTrue(connectionPoolConfig.getPools().isEmpty());
+
+        PoolProfile profile = new PoolProfile();
+        assertTrue(profile.getHosts().isEmpty());
+        assertEquals(20, profile.getMaxPerRoute());
+        assertEquals(40, profile.getMaxTotal());
+        assertEquals(30000, profile.getKeepAlive());
+        assertEquals(2000, profile.getValidateAfterInactivity());
+
+        profile.setHosts(Arrays.asList("localhost:8182"));
+        profile.setMaxPerRoute(16);
+        profile.setMaxTotal(16);
+        profile.setKeepAlive(10000);
+        profile.setValidateAfterInactivity(1000);
+        connectionPoolConfig.getPools().put("image-server", profile);
+
+        PoolProfile imageServer = connectionPoolConfig.getPools().get("image-server");
+        assertEquals("localhost:8182", imageServer.getHosts().get(0));
+        assertEquals(16, imageServer.getMaxPerRoute());
+        assertEquals(16, imageServer.getMaxTotal());
+        assertEquals(10000, imageServer.getKeepAlive());
+        assertEquals(1000, imageServer.getValidateAfterInactivity());
+    }
+
+}
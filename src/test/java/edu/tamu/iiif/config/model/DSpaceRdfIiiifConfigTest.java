@@ -58,6 +58,15 @@ public class DSpaceRdfIiiifConfigTest {
         config.setIdentifier("fedora-pcdm");
         config.setContextAsMetadata(true);
 
+        assertEquals(5, config.getRdfAccept().size());
+        assertEquals("text/turtle", config.getRdfAccept().get(0));
+
+        List<String> rdfAccept = new ArrayList<String>();
+        rdfAccept.add("application/n-triples");
+        rdfAccept.add("text/turtle;q=0.9");
+
+        config.setRdfAccept(rdfAccept);
+
         assertEquals(4, config.getLabelPredicates().size());
         assertEquals("http://purl.org/dc/elements/1.1/title", config.getLabelPredicates().get(0));
         assertEquals("http://purl.org/dc/terms/title", config.getLabelPredicates().get(1));
@@ -93,6 +102,10 @@ public class DSpaceRdfIiiifConfigTest {
         assertEquals("http://localhost:9000/fcrepo/rest", config.getUrl());
         assertEquals("fedora-pcdm", config.getIdentifier());
         assertEquals(true, config.getContextAsMetadata());
+
+        assertEquals(2, config.getRdfAccept().size());
+        assertEquals("application/n-triples", config.getRdfAccept().get(0));
+        assertEquals("text/turtle;q=0.9", config.getRdfAccept().get(1));
     }
 
 }
@@ -0,0 +1,27 @@
+package edu.tamu.iiif.config.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestType;
+
+@ExtendWith(SpringExtension.class)
+public class ManifestTtlConfigTest {
+
+    @Test
+    public void testManifestTtlConfig() {
+        ManifestTtlConfig manifestTtlConfig = new ManifestTtlConfig();
+        assertEquals(2592000000L, manifestTtlConfig.getTtl(ManifestType.PRESENTATION));
+
+        manifestTtlConfig.setFallback(0);
+        manifestTtlConfig.getTypes().put(ManifestType.IMAGE, 604800000L);
+        manifestTtlConfig.getTypes().put(ManifestType.CANVAS, -1L);
+        assertEquals(604800000L, manifestTtlConfig.getTtl(ManifestType.IMAGE));
+        assertEquals(0, manifestTtlConfig.getTtl(ManifestType.CANVAS));
+        assertEquals(0, manifestTtlConfig.getTtl(ManifestType.PRESENTATION));
+    }
+
+}
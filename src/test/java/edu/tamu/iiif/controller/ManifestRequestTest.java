@@ -1,5 +1,6 @@
 package edu.tamu.iiif.controller;
 
+import static edu.tamu.iiif.utility.StringUtility.encode;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.Arrays;
@@ -8,6 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import edu.tamu.iiif.model.ManifestType;
+import edu.tamu.iiif.model.RedisManifest;
+
 @ExtendWith(SpringExtension.class)
 public class ManifestRequestTest {
 
@@ -27,4 +31,23 @@ public class ManifestRequestTest {
         assertEquals("disallow", request.getDisallowed());
     }
 
+    @Test
+    public void testManifestRequestCanonical() {
+        ManifestRequest request = ManifestRequest.of("test", false, Arrays.asList(new String[] { "image/png", "image/jpeg", "image/png" }), Arrays.asList(new String[] { " image/bmp", "" }));
+        assertEquals("image/png;image/jpeg;image/png", request.getAllowed());
+        assertEquals("image/jpeg;image/png", request.getCanonicalAllowed());
+        assertEquals("image/bmp", request.getCanonicalDisallowed());
+        assertEquals("image/jpeg;image/png", ManifestRequest.canonicalize("image/png,image/jpeg;image/png"));
+    }
+
+    @Test
+    public void testManifestRequestOfRedisManifest() {
+        RedisManifest manifest = new RedisManifest(encode("test"), ManifestType.PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", "{}");
+        ManifestRequest request = ManifestRequest.of(manifest);
+        assertEquals("test", request.getContext());
+        assertEquals(true, request.isUpdate());
+        assertEquals("image/png;image/jpeg", request.getAllowed());
+        assertEquals("", request.getCanonicalDisallowed());
+    }
+
 }
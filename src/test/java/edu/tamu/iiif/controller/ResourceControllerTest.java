@@ -1,7 +1,10 @@
 package edu.tamu.iiif.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.TEXT_PLAIN;
@@ -14,7 +17,15 @@ import static org.springframework.restdocs.request.RequestDocumentation.paramete
 import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
 import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,10 +42,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import edu.tamu.iiif.config.model.AdminConfig;
 import edu.tamu.iiif.exception.NotFoundException;
 import edu.tamu.iiif.model.RedisResource;
+import edu.tamu.iiif.model.ResourceImport;
+import edu.tamu.iiif.model.ResourceMapping;
+import edu.tamu.iiif.service.ImageInfoCache;
 import edu.tamu.iiif.service.ResourceResolver;
+import edu.tamu.iiif.service.ResourceTransfer;
 
 @Import({ AdminConfig.class })
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +65,12 @@ public class ResourceControllerTest {
     @MockBean
     private ResourceResolver resourceResolver;
 
+    @MockBean
+    private ImageInfoCache imageInfoCache;
+
+    @MockBean
+    private ResourceTransfer resourceTransfer;
+
     private final RedisResource mockResource = new RedisResource("http://localhost:9000/fcrepo/rest/image01");
 
     private final RedisResource mockResourceNotExist = new RedisResource("http://localhost:9000/fcrepo/rest/image02");
@@ -62,6 +85,8 @@ public class ResourceControllerTest {
 
     private final String invalidUrl = "fubar";
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     public void setup() throws URISyntaxException, NotFoundException {
         when(resourceResolver.resolve(mockResource.getId())).thenReturn(mockResource.getUrl());
@@ -84,6 +109,7 @@ public class ResourceControllerTest {
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
         assertEquals(200, result.getResponse().getStatus());
         assertEquals(mockResource.getUrl(), result.getResponse().getContentAsString());
+        assertEquals("public, max-age=86400", result.getResponse().getHeader("Cache-Control"));
     }
 
     @Test
@@ -101,6 +127,7 @@ public class ResourceControllerTest {
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
         assertEquals(301, result.getResponse().getStatus());
         assertEquals(mockResource.getUrl(), result.getResponse().getHeader("location"));
+        assertEquals("public, max-age=86400", result.getResponse().getHeader("Cache-Control"));
     }
 
     @Test
@@ -187,6 +214,84 @@ public class ResourceControllerTest {
         assertEquals("Not a valid URL: " + invalidUrl, result.getResponse().getContentAsString());
     }
 
+    @Test
+    @WithMockUser(roles={ "ADMIN" })
+    public void testPostResources() throws Exception {
+        List<String> uris = Arrays.asList(mockResource.getUrl(), mockResourceNotExistYet.getUrl());
+        Map<String, String> ids = new LinkedHashMap<String, String>();
+        ids.put(mockResource.getUrl(), mockResource.getId());
+        ids.put(mockResourceNotExistYet.getUrl(), mockResourceNotExistYet.getId());
+        when(resourceResolver.lookupOrCreateAll(uris)).thenReturn(ids);
+        RequestBuilder requestBuilder = post("/resources/batch").contentType(APPLICATION_JSON).content(objectMapper.writeValueAsString(uris)).accept(APPLICATION_JSON);
+        RestDocumentationResultHandler restDocHandler = document("resources/postResources");
+        MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(objectMapper.writeValueAsString(ids), result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void testPostResourcesUnauthorized() throws Exception {
+        RequestBuilder requestBuilder = post("/resources/batch").contentType(APPLICATION_JSON).content("[]").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(401, result.getResponse().getStatus());
+    }
+
+    @Test
+    public void testGetResourceUrls() throws Exception {
+        List<String> ids = Arrays.asList(mockResource.getId(), mockResourceNotExist.getId());
+        when(resourceResolver.resolveAll(ids)).thenReturn(Collections.singletonMap(mockResource.getId(), mockResource.getUrl()));
+        RequestBuilder requestBuilder = post("/resources/batch/resolve").contentType(APPLICATION_JSON).content(objectMapper.writeValueAsString(ids)).accept(APPLICATION_JSON);
+        RestDocumentationResultHandler restDocHandler = document("resources/getResourceUrls");
+        MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(objectMapper.writeValueAsString(Collections.singletonMap(mockResource.getId(), mockResource.getUrl())), result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @WithMockUser(roles={ "ADMIN" })
+    public void testExportResources() throws Exception {
+        String mappings = objectMapper.writeValueAsString(new ResourceMapping(mockResource.getId(), mockResource.getUrl())) + "\n";
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(mappings.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(resourceTransfer).export(any(OutputStream.class));
+        RequestBuilder requestBuilder = get("/resources/mappings").accept("application/x-ndjson");
+        RestDocumentationResultHandler restDocHandler = document("resources/exportResources");
+        MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        assertEquals(mappings, result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void testExportResourcesUnauthorized() throws Exception {
+        RequestBuilder requestBuilder = get("/resources/mappings").accept("application/x-ndjson");
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(401, result.getResponse().getStatus());
+    }
+
+    @Test
+    @WithMockUser(roles={ "ADMIN" })
+    public void testImportResources() throws Exception {
+        String mappings = objectMapper.writeValueAsString(new ResourceMapping(mockResource.getId(), mockResource.getUrl())) + "\n";
+        ResourceImport resourceImport = new ResourceImport();
+        resourceImport.add(1, 0, 0, 0);
+        when(resourceTransfer.load(any(InputStream.class))).thenReturn(resourceImport);
+        RequestBuilder requestBuilder = post("/resources/mappings").contentType("application/x-ndjson").content(mappings).accept(APPLICATION_JSON);
+        RestDocumentationResultHandler restDocHandler = document("resources/importResources");
+        MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(objectMapper.writeValueAsString(resourceImport), result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void testImportResourcesUnauthorized() throws Exception {
+        RequestBuilder requestBuilder = post("/resources/mappings").contentType("application/x-ndjson").content("").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(401, result.getResponse().getStatus());
+    }
+
     @Test
     @WithMockUser(roles={ "ADMIN" })
     public void testRemoveResource() throws Exception {
@@ -204,4 +309,14 @@ public class ResourceControllerTest {
         assertEquals(404, result.getResponse().getStatus());
     }
 
+    @Test
+    @WithMockUser(roles={ "ADMIN" })
+    public void testEvictImageInfo() throws Exception {
+        RequestBuilder requestBuilder = delete("/resources/{id}/info", mockResource.getId()).accept(TEXT_PLAIN);
+        RestDocumentationResultHandler restDocHandler = document("resources/evictImageInfo", pathParameters(parameterWithName("id").description("The resource id.")));
+        MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
+        assertEquals(204, result.getResponse().getStatus());
+        verify(imageInfoCache).evict(mockResource.getId());
+    }
+
 }
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.dspace.rdf.DSpaceRdfCanvasManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = DSpaceRdfCanvasManifestController.class)
 public class DSpaceRdfCanvasManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class DSpaceRdfCanvasManifestControllerTest extends AbstractManifestContr
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(dspaceRdfCanvasManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(dspaceRdfCanvasManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/dspace/canvas/{context}", "123456789/158308/1/sports-car-146873_960_720.png").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("dspace/canvas", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.dspace.rdf.DSpaceRdfImageManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = DSpaceRdfImageManifestController.class)
 public class DSpaceRdfImageManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class DSpaceRdfImageManifestControllerTest extends AbstractManifestContro
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(dspaceRdfImageManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(dspaceRdfImageManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/dspace/image/{context}", "123456789/158308/1/sports-car-146873_960_20.png").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("dspace/image", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
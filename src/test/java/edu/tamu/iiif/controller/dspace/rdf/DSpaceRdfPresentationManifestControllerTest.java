@@ -1,8 +1,13 @@
 package edu.tamu.iiif.controller.dspace.rdf;
 
 import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
@@ -10,6 +15,9 @@ import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuild
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,16 +26,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.restdocs.mockmvc.RestDocumentationResultHandler;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.ManifestResult;
+import edu.tamu.iiif.model.ManifestValidators;
 import edu.tamu.iiif.service.dspace.rdf.DSpaceRdfPresentationManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = DSpaceRdfPresentationManifestController.class)
 public class DSpaceRdfPresentationManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,11 +55,84 @@ public class DSpaceRdfPresentationManifestControllerTest extends AbstractManifes
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(dspaceRdfPresentationManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/dspace/presentation/{context}", "123456789/158308").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("dspace/presentation", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
         assertEquals(expected, result.getResponse().getContentAsString());
+        assertNull(result.getResponse().getHeader(HttpHeaders.WARNING));
+    }
+
+    @Test
+    public void testGetStaleManifest() throws Exception {
+        String expected = readFileToString(json.getFile(), "UTF-8");
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, true));
+        RequestBuilder requestBuilder = get("/dspace/presentation/{context}?update=true", "123456789/158308").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(expected, result.getResponse().getContentAsString());
+        assertEquals("110 - \"Response is Stale\"", result.getResponse().getHeader(HttpHeaders.WARNING));
+        assertEquals("no-cache", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    public void testGetManifestValidators() throws Exception {
+        String expected = readFileToString(json.getFile(), "UTF-8");
+        ManifestResult manifest = ManifestResult.of(expected, false);
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(manifest);
+        MvcResult result = mockMvc.perform(get("/dspace/presentation/{context}", "123456789/158308").accept(APPLICATION_JSON)).andReturn();
+        assertEquals("\"" + manifest.getValidators().getEtag() + "\"", result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals("public, no-cache", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNotNull(result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void testGetManifestNotModified() throws Exception {
+        ManifestValidators validators = new ManifestValidators("d41d8cd98f00b204e9800998ecf8427e", 1577836800000L);
+        when(dspaceRdfPresentationManifestService.getManifestValidators(any(ManifestRequest.class))).thenReturn(Optional.of(validators));
+        RequestBuilder requestBuilder = get("/dspace/presentation/{context}", "123456789/158308").header(HttpHeaders.IF_NONE_MATCH, "\"d41d8cd98f00b204e9800998ecf8427e\"").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(304, result.getResponse().getStatus());
+        assertEquals("", result.getResponse().getContentAsString());
+        verify(dspaceRdfPresentationManifestService, never()).getManifestResult(any(ManifestRequest.class));
+    }
+
+    @Test
+    public void testGetManifestModified() throws Exception {
+        String expected = readFileToString(json.getFile(), "UTF-8");
+        ManifestValidators validators = new ManifestValidators("d41d8cd98f00b204e9800998ecf8427e", 1577836800000L);
+        when(dspaceRdfPresentationManifestService.getManifestValidators(any(ManifestRequest.class))).thenReturn(Optional.of(validators));
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
+        RequestBuilder requestBuilder = get("/dspace/presentation/{context}", "123456789/158308").header(HttpHeaders.IF_NONE_MATCH, "\"0123456789abcdef0123456789abcdef\"").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(expected, result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void testGetManifestGzip() throws Exception {
+        String expected = readFileToString(json.getFile(), "UTF-8");
+        byte[] gzipped = ManifestEncoding.GZIP.encode(expected.getBytes(StandardCharsets.UTF_8));
+        ManifestValidators validators = new ManifestValidators(ManifestValidators.etag(expected), 1577836800000L, ManifestEncoding.GZIP);
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(new ManifestResult(new ManifestBody(gzipped, ManifestEncoding.GZIP), validators, false));
+        RequestBuilder requestBuilder = get("/dspace/presentation/{context}", "123456789/158308").header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"" + validators.getEtag() + "-gzip\"", result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(gzipped.length, result.getResponse().getContentLength());
+        assertArrayEquals(gzipped, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void testGetManifestGzipNotAccepted() throws Exception {
+        String expected = readFileToString(json.getFile(), "UTF-8");
+        byte[] gzipped = ManifestEncoding.GZIP.encode(expected.getBytes(StandardCharsets.UTF_8));
+        ManifestValidators validators = new ManifestValidators(ManifestValidators.etag(expected), 1577836800000L, ManifestEncoding.GZIP);
+        when(dspaceRdfPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(new ManifestResult(new ManifestBody(gzipped, ManifestEncoding.GZIP), validators, false));
+        RequestBuilder requestBuilder = get("/dspace/presentation/{context}", "123456789/158308").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0").accept(APPLICATION_JSON);
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"" + validators.getEtag() + "\"", result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(expected, result.getResponse().getContentAsString());
     }
 
 }
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.dspace.rdf.DSpaceRdfSequenceManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = DSpaceRdfSequenceManifestController.class)
 public class DSpaceRdfSequenceManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class DSpaceRdfSequenceManifestControllerTest extends AbstractManifestCon
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(dspaceRdfSequenceManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(dspaceRdfSequenceManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/dspace/sequence/{context}", "123456789/158308").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("dspace/sequence", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
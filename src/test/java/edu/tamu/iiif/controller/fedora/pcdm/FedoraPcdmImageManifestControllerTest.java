@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.fedora.pcdm.FedoraPcdmImageManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = FedoraPcdmImageManifestController.class)
 public class FedoraPcdmImageManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class FedoraPcdmImageManifestControllerTest extends AbstractManifestContr
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(image0.getFile(), "UTF-8");
-        when(fedoraPcdmImageManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(fedoraPcdmImageManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/fedora/image/{context}", "cars_pcdm_objects/chevy/pages/page_0/files/PTAR_800x400.png").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("fedora/image", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.fedora.pcdm.FedoraPcdmPresentationManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = FedoraPcdmPresentationManifestController.class)
 public class FedoraPcdmPresentationManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class FedoraPcdmPresentationManifestControllerTest extends AbstractManife
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(fedoraPcdmPresentationManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(fedoraPcdmPresentationManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/fedora/presentation/{context}", "cars_pcdm_objects/chevy").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("fedora/presentation", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
@@ -23,11 +23,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import edu.tamu.iiif.config.model.AdminConfig;
+import edu.tamu.iiif.config.model.CacheControlConfig;
 import edu.tamu.iiif.controller.AbstractManifestControllerTest;
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestResult;
 import edu.tamu.iiif.service.fedora.pcdm.FedoraPcdmSequenceManifestService;
 
-@Import({ AdminConfig.class })
+@Import({ AdminConfig.class, CacheControlConfig.class })
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(value = FedoraPcdmSequenceManifestController.class)
 public class FedoraPcdmSequenceManifestControllerTest extends AbstractManifestControllerTest {
@@ -41,7 +43,7 @@ public class FedoraPcdmSequenceManifestControllerTest extends AbstractManifestCo
     @Test
     public void testGetManifest() throws Exception {
         String expected = readFileToString(json.getFile(), "UTF-8");
-        when(fedoraPcdmSequenceManifestService.getManifest(any(ManifestRequest.class))).thenReturn(expected);
+        when(fedoraPcdmSequenceManifestService.getManifestResult(any(ManifestRequest.class))).thenReturn(ManifestResult.of(expected, false));
         RequestBuilder requestBuilder = get("/fedora/sequence/{context}", "cars_pcdm_objects/chevy").accept(APPLICATION_JSON);
         RestDocumentationResultHandler restDocHandler = document("fedora/sequence", pathParameters(parameterWithName("context").description("The context path.")));
         MvcResult result = mockMvc.perform(requestBuilder).andDo(restDocHandler).andReturn();
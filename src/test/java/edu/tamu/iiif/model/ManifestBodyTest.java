@@ -0,0 +1,53 @@
+package edu.tamu.iiif.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class ManifestBodyTest {
+
+    private static final String JSON = "{\"@id\":\"http://localhost:9000/dspace/presentation/123456789/158308\",\"label\":\"Sports car \u00e9t\u00e9\"}";
+
+    @Test
+    public void testEncodeNone() throws IOException {
+        ManifestBody body = ManifestBody.encode(JSON, ManifestEncoding.NONE);
+        assertEquals(ManifestEncoding.NONE, body.getEncoding());
+        assertEquals(JSON, new String(body.getBytes(), StandardCharsets.UTF_8));
+        assertEquals(JSON, body.decode());
+    }
+
+    @Test
+    public void testEncodeGzip() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i > 0 ? "," : "").append(JSON);
+        }
+        String manifest = json.append("]").toString();
+        ManifestBody body = ManifestBody.encode(manifest, ManifestEncoding.GZIP);
+        assertEquals(ManifestEncoding.GZIP, body.getEncoding());
+        assertTrue(body.getBytes().length * 5 < manifest.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(manifest, body.decode());
+        try (InputStream inputStream = body.openStream()) {
+            assertEquals(manifest, IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testEncodingOf() {
+        assertEquals(ManifestEncoding.GZIP, ManifestEncoding.of("gzip"));
+        assertEquals(ManifestEncoding.NONE, ManifestEncoding.of("none"));
+        assertEquals(ManifestEncoding.NONE, ManifestEncoding.of("identity"));
+        assertThrows(IllegalArgumentException.class, () -> ManifestEncoding.of("br"));
+    }
+
+}
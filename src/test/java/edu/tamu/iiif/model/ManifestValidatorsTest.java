@@ -0,0 +1,31 @@
+package edu.tamu.iiif.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class ManifestValidatorsTest {
+
+    @Test
+    public void testEtag() {
+        assertEquals("99914b932bd37a50b983c5e7c90ae93b", ManifestValidators.etag("{}"));
+        assertNotEquals(ManifestValidators.etag("{}"), ManifestValidators.etag("{ }"));
+    }
+
+    @Test
+    public void testOfRedisManifest() {
+        RedisManifest manifest = new RedisManifest("MTIzNDU2Nzg5LzE1ODMwOA==", ManifestType.PRESENTATION, "dspace-rdf", "{}");
+        manifest.setCreation(1577836800000L);
+        ManifestValidators validators = ManifestValidators.of(manifest);
+        assertEquals("99914b932bd37a50b983c5e7c90ae93b", validators.getEtag());
+        assertEquals(1577836800000L, validators.getLastModified());
+
+        manifest.setEtag("stored");
+        assertEquals("stored", ManifestValidators.of(manifest).getEtag());
+    }
+
+}
@@ -0,0 +1,65 @@
+package edu.tamu.iiif.model.rdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.constants.Constants;
+import edu.tamu.iiif.utility.RdfModelUtility;
+
+@ExtendWith(SpringExtension.class)
+public class RdfProjectionTest {
+
+    private final static String DCTERMS_PREFIX = "http://purl.org/dc/terms/";
+
+    private final static RdfProjection projection = RdfProjection.of(Arrays.asList(Constants.DSPACE_HAS_BITSTREAM_PREDICATE), Arrays.asList(DCTERMS_PREFIX));
+
+    @Test
+    public void testIncludes() {
+        assertTrue(projection.includes(NodeFactory.createURI(Constants.DSPACE_HAS_BITSTREAM_PREDICATE)));
+        assertTrue(projection.includes(NodeFactory.createURI(DCTERMS_PREFIX + "title")));
+        assertFalse(projection.includes(NodeFactory.createURI(Constants.DSPACE_IS_PART_OF_COLLECTION_PREDICATE)));
+        assertFalse(projection.includes(NodeFactory.createLiteral(DCTERMS_PREFIX + "title")));
+    }
+
+    @Test
+    public void testGetKey() {
+        RdfProjection same = RdfProjection.of(Arrays.asList(Constants.DSPACE_HAS_BITSTREAM_PREDICATE), Arrays.asList(DCTERMS_PREFIX));
+        RdfProjection other = RdfProjection.of(Arrays.asList(Constants.DSPACE_HAS_ITEM_PREDICATE), Arrays.asList(DCTERMS_PREFIX));
+        assertEquals(projection.getKey(), same.getKey());
+        assertNotEquals(projection.getKey(), other.getKey());
+        // a predicate is not a prefix of the same URI
+        RdfProjection asPrefix = RdfProjection.of(Arrays.<String>asList(), Arrays.asList(Constants.DSPACE_HAS_BITSTREAM_PREDICATE, DCTERMS_PREFIX));
+        assertNotEquals(projection.getKey(), asPrefix.getKey());
+    }
+
+    @Test
+    public void testProject() throws IOException {
+        try (InputStream stream = new FileInputStream("src/test/resources/mock/dspace/rdf/item.rdf")) {
+            Model model = RdfModelUtility.createRdfModel(stream, Optional.of(MediaType.valueOf("text/turtle")), Optional.of(projection));
+            assertFalse(model.isEmpty());
+            for (Statement statement : model.listStatements().toList()) {
+                assertTrue(projection.includes(statement.getPredicate().asNode()));
+            }
+            assertTrue(model.contains(null, model.getProperty(Constants.DSPACE_HAS_BITSTREAM_PREDICATE)));
+            assertTrue(model.contains(null, model.getProperty(DCTERMS_PREFIX + "title")));
+            assertFalse(model.contains(null, model.getProperty(Constants.DSPACE_IS_PART_OF_COLLECTION_PREDICATE)));
+        }
+    }
+
+}
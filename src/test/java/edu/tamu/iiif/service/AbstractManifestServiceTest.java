@@ -1,11 +1,19 @@
 package edu.tamu.iiif.service;
 
+import static org.apache.commons.io.FileUtils.readFileToString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,14 +23,24 @@ import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
 import edu.tamu.iiif.model.ManifestType;
-import edu.tamu.iiif.model.repo.RedisManifestRepo;
+import edu.tamu.iiif.model.RedisManifest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +50,8 @@ public abstract class AbstractManifestServiceTest implements ManifestServiceTest
 
     protected static final String IMAGE_SERVICE_URL = "http://localhost:8182/iiif/2";
 
+    protected static final MediaType TEXT_TURTLE = MediaType.valueOf("text/turtle");
+
     protected static final String LOGO_URL = "https://library.tamu.edu/assets/images/tamu-logos/TAM-PrimaryMarkB.png";
 
     @Spy
@@ -41,32 +61,92 @@ public abstract class AbstractManifestServiceTest implements ManifestServiceTest
     protected RestTemplate restTemplate;
 
     @Mock
-    protected RedisManifestRepo redisManifestRepo;
+    protected RedisManifestStore redisManifestStore;
 
     @Mock
     protected ResourceResolver resourceResolver;
 
+    @Mock
+    protected ImageInfoCache imageInfoCache;
+
+    protected GenerationTaskExecutor generationTaskExecutor = new GenerationTaskExecutor(4, 2);
+
+    protected RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(1048576, 0);
+
+    protected HeadMetadataCache headMetadataCache = new HeadMetadataCache(60000, 1000);
+
+    protected GenerationCoalescer generationCoalescer = new GenerationCoalescer(new SimpleMeterRegistry(), 600000);
+
+    protected GenerationLease generationLease = new GenerationLease(null, new SimpleMeterRegistry(), false, 30000, 500, 600000);
+
+    protected ManifestRefresher manifestRefresher = new ManifestRefresher(new SimpleMeterRegistry(), 0, 100, 60000);
+
+    protected ManifestBodyWriter manifestBodyWriter = new ManifestBodyWriter(false, "gzip");
+
     @BeforeEach
-    public void init() throws URISyntaxException, NotFoundException {
-        lenient().when(redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.empty());
+    public void init() throws IOException, URISyntaxException, NotFoundException {
+        lenient().when(redisManifestStore.find(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.empty());
+        lenient().when(redisManifestStore.findBody(any(RedisManifest.class))).thenAnswer(invocation -> Optional.of(ManifestBody.encode(invocation.<RedisManifest>getArgument(0).getJson(), ManifestEncoding.NONE)));
 
-        lenient().when(resourceResolver.lookup(any(String.class))).thenAnswer(new Answer<String>() {
+        Answer<String> resourceId = new Answer<String>() {
             @Override
             public String answer(InvocationOnMock invocation) throws Throwable {
                 Object[] args = invocation.getArguments();
                 String url = (String) args[0];
-                String prefixedContext = getRepoRdfIdentifier() + ":" + url.replace(getRepoBaseUrl(), "");
-                byte[] encodedContext = Base64.getEncoder().encode(prefixedContext.getBytes());
-                String id = new String(encodedContext);
-                return id;
+                return resourceId(url);
+            }
+        };
+        lenient().when(resourceResolver.lookup(any(String.class))).thenAnswer(resourceId);
+        lenient().when(resourceResolver.lookupOrCreate(any(String.class))).thenAnswer(resourceId);
+        lenient().when(resourceResolver.lookupOrCreateAll(anyCollection())).thenAnswer(new Answer<Map<String, String>>() {
+            @Override
+            public Map<String, String> answer(InvocationOnMock invocation) throws Throwable {
+                Map<String, String> ids = new LinkedHashMap<String, String>();
+                for (String url : invocation.<Collection<String>>getArgument(0)) {
+                    ids.put(url, resourceId(url));
+                }
+                return ids;
             }
         });
     }
 
+    private String resourceId(String url) {
+        String prefixedContext = getRepoRdfIdentifier() + ":" + url.replace(getRepoBaseUrl(), "");
+        byte[] encodedContext = Base64.getEncoder().encode(prefixedContext.getBytes());
+        return new String(encodedContext);
+    }
+
     protected void setup(AbstractManifestService manifestService) {
         setField(manifestService, "iiifServiceUrl", IIIF_SERVICE_URL);
         setField(manifestService, "imageServerUrl", IMAGE_SERVICE_URL);
         setField(manifestService, "logoUrl", LOGO_URL);
+        setField(manifestService, "generationTaskExecutor", generationTaskExecutor);
+        setField(manifestService, "rdfDocumentCache", rdfDocumentCache);
+        setField(manifestService, "imageInfoCache", imageInfoCache);
+        setField(manifestService, "headMetadataCache", headMetadataCache);
+        setField(manifestService, "generationCoalescer", generationCoalescer);
+        setField(manifestService, "generationLease", generationLease);
+        setField(manifestService, "manifestRefresher", manifestRefresher);
+        setField(manifestService, "manifestBodyWriter", manifestBodyWriter);
+        setField(manifestService, "projectRdf", true);
+    }
+
+    protected void mockRdf(String url, Resource rdf) throws IOException {
+        mockRdf(url, readFileToString(rdf.getFile(), "UTF-8"));
+    }
+
+    protected void mockRdf(String url, String rdf) {
+        byte[] body = rdf.getBytes(StandardCharsets.UTF_8);
+        // lenient as not every test of a service requests every document
+        lenient().when(restTemplate.execute(eq(url), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ResponseExtractor<?> responseExtractor = invocation.getArgument(3);
+                MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+                response.getHeaders().setContentType(TEXT_TURTLE);
+                return responseExtractor.extractData(response);
+            }
+        });
     }
 
     protected abstract String getRepoRdfIdentifier();
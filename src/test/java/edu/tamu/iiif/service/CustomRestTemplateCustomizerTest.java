@@ -0,0 +1,87 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestTemplate;
+
+import edu.tamu.iiif.config.model.ConnectionPoolConfig;
+import edu.tamu.iiif.config.model.ConnectionPoolConfig.PoolProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+public class CustomRestTemplateCustomizerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private CustomRestTemplateCustomizer customizer;
+
+    @BeforeEach
+    public void setup() {
+        PoolProfile repository = new PoolProfile();
+        repository.setHosts(Arrays.asList("localhost:8080"));
+        PoolProfile imageServer = new PoolProfile();
+        imageServer.setHosts(Arrays.asList("images.example.org"));
+        imageServer.setMaxTotal(8);
+        PoolProfile resolver = new PoolProfile();
+        resolver.setHosts(Arrays.asList("resolver.example.org:443"));
+
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.getPools().put("repository", repository);
+        connectionPoolConfig.getPools().put("image-server", imageServer);
+        connectionPoolConfig.getPools().put("resolver", resolver);
+
+        meterRegistry = new SimpleMeterRegistry();
+        customizer = new CustomRestTemplateCustomizer();
+        setField(customizer, "connectionPoolConfig", connectionPoolConfig);
+        setField(customizer, "meterRegistry", meterRegistry);
+        customizer.createPools();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        customizer.closePools();
+    }
+
+    @Test
+    public void testGetPool() {
+        assertEquals("repository", customizer.getPool(URI.create("http://localhost:8080/rdf/handle/123456789/158308")));
+        assertEquals("image-server", customizer.getPool(URI.create("https://images.example.org/iiif/2/abc/info.json")));
+        assertEquals("image-server", customizer.getPool(URI.create("http://IMAGES.example.org:8182/iiif/2/abc/info.json")));
+        assertEquals(ConnectionPoolConfig.DEFAULT_POOL, customizer.getPool(URI.create("http://localhost:9000/fcrepo/rest")));
+        assertEquals("resolver", customizer.getPool(URI.create("https://resolver.example.org/resources/abc")));
+        assertEquals(ConnectionPoolConfig.DEFAULT_POOL, customizer.getPool(URI.create("http://resolver.example.org/resources/abc")));
+    }
+
+    @Test
+    public void testPoolGauges() {
+        assertNotNull(meterRegistry.find("iiif.http.pool.leased").tag("pool", "repository").gauge());
+        assertNotNull(meterRegistry.find("iiif.http.pool.pending").tag("pool", ConnectionPoolConfig.DEFAULT_POOL).gauge());
+        assertEquals(0.0, meterRegistry.get("iiif.http.pool.available").tag("pool", "image-server").gauge().value());
+        assertEquals(8.0, meterRegistry.get("iiif.http.pool.max").tag("pool", "image-server").gauge().value());
+    }
+
+    @Test
+    public void testCustomize() throws IOException {
+        RestTemplate restTemplate = new RestTemplate();
+        customizer.customize(restTemplate);
+        URI uri = URI.create("http://localhost:8080/rdf/handle/123456789/158308");
+        ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        assertEquals(uri, request.getURI());
+        assertEquals(HttpMethod.GET, request.getMethod());
+    }
+
+}
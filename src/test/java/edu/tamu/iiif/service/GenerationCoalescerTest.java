@@ -0,0 +1,177 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+public class GenerationCoalescerTest {
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final ManifestBody FIRST = body("{\"id\":1}");
+
+    private static final ManifestBody SECOND = body("{\"id\":2}");
+
+    private static final ManifestBody EMPTY = body("{}");
+
+    private MeterRegistry meterRegistry;
+
+    private GenerationCoalescer generationCoalescer;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        generationCoalescer = new GenerationCoalescer(meterRegistry, 5000);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGenerate() throws IOException, URISyntaxException {
+        assertEquals(EMPTY, generationCoalescer.generate(KEY, false, () -> EMPTY));
+        assertEquals(0, generationCoalescer.getInFlight());
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger generations = new AtomicInteger();
+
+        Future<ManifestBody> first = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> {
+            generations.incrementAndGet();
+            started.countDown();
+            release.await();
+            return FIRST;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<ManifestBody> second = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> {
+            generations.incrementAndGet();
+            return SECOND;
+        }));
+        waitForWaiter();
+        release.countDown();
+
+        assertEquals(FIRST, first.get(5, TimeUnit.SECONDS));
+        assertEquals(FIRST, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, generations.get());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.coalesced").counter().count());
+        assertEquals(0, generationCoalescer.getInFlight());
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ManifestBody> first = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> {
+            started.countDown();
+            release.await();
+            throw new IOException("Repository unavailable");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<ManifestBody> second = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> EMPTY));
+        waitForWaiter();
+        release.countDown();
+
+        ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertTrue(firstFailure.getCause() instanceof IOException);
+        assertTrue(secondFailure.getCause() instanceof IOException);
+
+        assertEquals(EMPTY, generationCoalescer.generate(KEY, false, () -> EMPTY));
+    }
+
+    @Test
+    public void testFreshGeneratesAgain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger generations = new AtomicInteger();
+
+        Future<ManifestBody> first = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> {
+            generations.incrementAndGet();
+            started.countDown();
+            release.await();
+            return FIRST;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<ManifestBody> second = executor.submit(() -> generationCoalescer.generate(KEY, true, () -> {
+            generations.incrementAndGet();
+            return SECOND;
+        }));
+        waitForWaiter();
+        release.countDown();
+
+        assertEquals(FIRST, first.get(5, TimeUnit.SECONDS));
+        assertEquals(SECOND, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, generations.get());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.rerun").counter().count());
+        assertEquals(0, generationCoalescer.getInFlight());
+    }
+
+    @Test
+    public void testWaitTimeout() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        generationCoalescer = new GenerationCoalescer(meterRegistry, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ManifestBody> first = executor.submit(() -> generationCoalescer.generate(KEY, false, () -> {
+            started.countDown();
+            release.await();
+            return FIRST;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(SECOND, generationCoalescer.generate(KEY, false, () -> SECOND));
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.wait-timeout").counter().count());
+
+        release.countDown();
+        assertEquals(FIRST, first.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForWaiter() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("iiif.manifest.generation.waiting").gauge().value() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.waiting").gauge().value());
+    }
+
+    private static ManifestBody body(String json) {
+        return new ManifestBody(json.getBytes(StandardCharsets.UTF_8), ManifestEncoding.NONE);
+    }
+
+}
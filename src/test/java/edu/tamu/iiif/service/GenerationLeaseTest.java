@@ -0,0 +1,190 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.service.GenerationLease.Lease;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class GenerationLeaseTest {
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final String LEASE_KEY = GenerationLease.LEASE_PREFIX + KEY;
+
+    private static final ManifestBody GENERATED = new ManifestBody("{}".getBytes(StandardCharsets.UTF_8), ManifestEncoding.NONE);
+
+    private static final ManifestBody STORED = new ManifestBody("{\"stored\":true}".getBytes(StandardCharsets.UTF_8), ManifestEncoding.NONE);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private MeterRegistry meterRegistry;
+
+    private GenerationLease generationLease;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        generationLease = new GenerationLease(redisTemplate, meterRegistry, true, 30000, 10, 1000);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        generationLease.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGenerateWithLease() throws IOException, URISyntaxException {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(7L);
+        when(valueOperations.setIfAbsent(LEASE_KEY, "7", 30000, TimeUnit.MILLISECONDS)).thenReturn(true);
+
+        ManifestBody manifest = generationLease.generate(KEY, false, lease -> {
+            assertTrue(lease.isFenced());
+            assertEquals(LEASE_KEY, lease.getKey());
+            assertEquals(7L, lease.getToken());
+            return GENERATED;
+        }, createdSince -> Optional.empty());
+
+        assertEquals(GENERATED, manifest);
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("7"));
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.lease").tag("result", "acquired").counter().count());
+    }
+
+    @Test
+    public void testWaitForOtherInstance() throws IOException, URISyntaxException {
+        AtomicInteger checks = new AtomicInteger();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(8L);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), eq("8"), anyLong(), any(TimeUnit.class))).thenReturn(false);
+        when(redisTemplate.hasKey(LEASE_KEY)).thenAnswer(invocation -> checks.incrementAndGet() < 3);
+
+        ManifestBody manifest = generationLease.generate(KEY, false, lease -> {
+            throw new IllegalStateException("Should not generate while another instance holds the lease");
+        }, createdSince -> Optional.of(STORED));
+
+        assertEquals(STORED, manifest);
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.lease").tag("result", "waited").counter().count());
+    }
+
+    @Test
+    public void testFreshWaiterGeneratesAgain() throws IOException, URISyntaxException {
+        AtomicInteger checks = new AtomicInteger();
+        AtomicLong loadedSince = new AtomicLong();
+        long stored = System.currentTimeMillis() - 1000;
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(10L, 11L);
+        // held by an instance which started generating before this request arrived
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), eq("10"), anyLong(), any(TimeUnit.class))).thenReturn(false);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), eq("11"), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(redisTemplate.hasKey(LEASE_KEY)).thenAnswer(invocation -> checks.incrementAndGet() < 3);
+
+        ManifestBody manifest = generationLease.generate(KEY, true, lease -> {
+            assertEquals(11L, lease.getToken());
+            return GENERATED;
+        }, createdSince -> {
+            loadedSince.set(createdSince);
+            return stored >= createdSince ? Optional.of(STORED) : Optional.empty();
+        });
+
+        assertEquals(GENERATED, manifest);
+        assertTrue(loadedSince.get() > stored);
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.lease").tag("result", "waited").counter().count());
+    }
+
+    @Test
+    public void testWaitTimeout() throws IOException, URISyntaxException {
+        generationLease = new GenerationLease(redisTemplate, meterRegistry, true, 30000, 10, 50);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(9L);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), eq("9"), anyLong(), any(TimeUnit.class))).thenReturn(false);
+        when(redisTemplate.hasKey(LEASE_KEY)).thenReturn(true);
+
+        ManifestBody manifest = generationLease.generate(KEY, false, lease -> {
+            assertFalse(lease.isFenced());
+            return GENERATED;
+        }, createdSince -> Optional.empty());
+
+        assertEquals(GENERATED, manifest);
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.generation.lease").tag("result", "timeout").counter().count());
+    }
+
+    @Test
+    public void testRedisUnavailable() throws IOException, URISyntaxException {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        ManifestBody manifest = generationLease.generate(KEY, false, lease -> {
+            assertFalse(lease.isFenced());
+            return GENERATED;
+        }, createdSince -> Optional.empty());
+
+        assertEquals(GENERATED, manifest);
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    public void testDisabled() throws IOException, URISyntaxException {
+        generationLease = new GenerationLease(redisTemplate, meterRegistry, false, 30000, 10, 1000);
+        assertEquals(GENERATED, generationLease.generate(KEY, false, lease -> lease == Lease.NONE ? GENERATED : null, createdSince -> Optional.empty()));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRunExclusively() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(8L, 9L);
+        when(valueOperations.setIfAbsent(GenerationLease.LEASE_PREFIX + "index-sweeper", "8", 30000, TimeUnit.MILLISECONDS)).thenReturn(true);
+        when(valueOperations.setIfAbsent(GenerationLease.LEASE_PREFIX + "index-sweeper", "9", 30000, TimeUnit.MILLISECONDS)).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(generationLease.runExclusively("index-sweeper", runs::incrementAndGet));
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("8"));
+
+        // held by another instance, skipped
+        assertFalse(generationLease.runExclusively("index-sweeper", runs::incrementAndGet));
+        assertEquals(1, runs.get());
+    }
+
+}
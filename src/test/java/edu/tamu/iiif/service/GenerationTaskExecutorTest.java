@@ -0,0 +1,117 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.exception.NotFoundException;
+
+@ExtendWith(SpringExtension.class)
+public class GenerationTaskExecutorTest {
+
+    private final GenerationTaskExecutor generationTaskExecutor = new GenerationTaskExecutor(4, 2);
+
+    @AfterEach
+    public void cleanup() {
+        generationTaskExecutor.shutdown();
+    }
+
+    @Test
+    public void testInvokeAllPreservesOrder() throws IOException, URISyntaxException {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            tasks.add(() -> {
+                Thread.sleep((20 - value) * 2);
+                return value;
+            });
+        }
+        List<Integer> results = generationTaskExecutor.invokeAll(tasks);
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, results.get(i));
+        }
+    }
+
+    @Test
+    public void testInvokeAllRespectsRequestConcurrency() throws IOException, URISyntaxException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+                return 0;
+            });
+        }
+        generationTaskExecutor.invokeAll(tasks);
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testInvokeAllPropagatesException() {
+        List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        tasks.add(() -> "first");
+        tasks.add(() -> {
+            throw new NotFoundException("This is only a test!");
+        });
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            generationTaskExecutor.invokeAll(tasks);
+        });
+    }
+
+    @Test
+    public void testCancelReleasesPermitsOfQueuedTasks() throws Exception {
+        // a single worker keeps the second task queued behind the first
+        GenerationTaskExecutor queueingExecutor = new GenerationTaskExecutor(4, 2, Executors.newSingleThreadExecutor());
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            GenerationTaskExecutor.GenerationBatch<Integer> batch = queueingExecutor.batch();
+            batch.submit(() -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return 0;
+            });
+            batch.submit(() -> {
+                calls.incrementAndGet();
+                return 1;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            batch.cancel();
+
+            Semaphore globalPermits = (Semaphore) getField(queueingExecutor, "globalPermits");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (globalPermits.availablePermits() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(4, globalPermits.availablePermits());
+            assertEquals(1, calls.get());
+        } finally {
+            queueingExecutor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import edu.tamu.iiif.model.HeadMetadata;
+
+@ExtendWith(SpringExtension.class)
+public class HeadMetadataCacheTest {
+
+    private static final String URL = "http://localhost:9000/fcrepo/rest/mwbObjects/TGWCatalog/Pages/ExCat0084/files/ExCat0084.jpg";
+
+    private final HeadMetadataCache headMetadataCache = new HeadMetadataCache(60000, 100);
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Test
+    public void testGetRequestsOnce() {
+        HeadMetadata first = headMetadataCache.get(URL, this::head);
+        HeadMetadata second = headMetadataCache.get(URL, this::head);
+        assertEquals(1, requests.get());
+        assertEquals("image/jpeg", first.getContentType().get());
+        assertEquals("<http://fedora.info/definitions/v4/repository#Binary>;rel=\"type\"", second.getLinks().get().get(0));
+        assertEquals("\"abc123\"", second.getETag().get());
+    }
+
+    @Test
+    public void testGetFailure() {
+        HeadMetadata metadata = headMetadataCache.get(URL, url -> {
+            requests.incrementAndGet();
+            throw new ResourceAccessException("This is only a test!");
+        });
+        assertFalse(metadata.getContentType().isPresent());
+        assertFalse(metadata.getLinks().isPresent());
+        // not cached, requested again
+        assertTrue(headMetadataCache.get(URL, this::head).getContentType().isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testGetNotFound() {
+        HeadMetadata metadata = headMetadataCache.get(URL, url -> {
+            requests.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        });
+        assertFalse(metadata.getContentType().isPresent());
+        assertFalse(headMetadataCache.get(URL, this::head).getContentType().isPresent());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testGetEncoded() {
+        String encoded = "http://localhost:9000/fcrepo/rest/mwbObjects/TGWCatalog/Pages/ExCat%200084/files/ExCat0084.jpg";
+        headMetadataCache.get(encoded, this::head);
+        assertTrue(headMetadataCache.get(encoded.replace("%20", " "), this::head).getLinks().isPresent());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+        headMetadataCache.get(URL, this::head);
+        headMetadataCache.invalidate(URL);
+        assertTrue(headMetadataCache.get(URL, this::head).getContentType().isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    private HttpHeaders head(String url) {
+        requests.incrementAndGet();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "image/jpeg");
+        headers.add(HttpHeaders.LINK, "<http://fedora.info/definitions/v4/repository#Binary>;rel=\"type\"");
+        headers.setETag("\"abc123\"");
+        return headers;
+    }
+
+}
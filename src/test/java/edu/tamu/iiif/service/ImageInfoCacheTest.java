@@ -0,0 +1,136 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.tamu.iiif.model.RedisImageInfo;
+import edu.tamu.iiif.model.repo.RedisImageInfoRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class ImageInfoCacheTest {
+
+    private static final String ID = "ZmVkb3JhLXBjZG06bXdiT2JqZWN0cy9UR1dDYXRhbG9n";
+
+    @Mock
+    private RedisImageInfoRepo redisImageInfoRepo;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private ImageInfoCache imageInfoCache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        imageInfoCache = new ImageInfoCache(redisImageInfoRepo, redisTemplate, meterRegistry, 100, 3600000);
+    }
+
+    @Test
+    public void testGetMiss() {
+        when(redisImageInfoRepo.findById(ID)).thenReturn(Optional.empty());
+        assertFalse(imageInfoCache.get(ID).isPresent());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        JsonNode info = new ObjectMapper().readTree("{\"@id\":\"http://localhost:8182/iiif/2/" + ID + "\",\"width\":960,\"height\":720,\"page_count\":3}");
+        imageInfoCache.put(ID, info);
+        Optional<JsonNode> cached = imageInfoCache.get(ID);
+        assertTrue(cached.isPresent());
+        assertEquals(960, cached.get().get("width").asInt());
+        assertEquals(720, cached.get().get("height").asInt());
+        assertEquals(3, cached.get().at("/page_count").asInt());
+        assertEquals(1, count("local-hit"));
+        verify(redisImageInfoRepo).save(any(RedisImageInfo.class));
+    }
+
+    @Test
+    public void testGetFromRedis() {
+        when(redisImageInfoRepo.findById(ID)).thenReturn(Optional.of(new RedisImageInfo(ID, 960, 720, null)));
+        assertTrue(imageInfoCache.get(ID).isPresent());
+        Optional<JsonNode> cached = imageInfoCache.get(ID);
+        assertFalse(cached.get().has("page_count"));
+        assertEquals(1, count("redis-hit"));
+        assertEquals(1, count("local-hit"));
+        verify(redisImageInfoRepo, times(1)).findById(ID);
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        imageInfoCache.put(ID, new ObjectMapper().readTree("{\"width\":960,\"height\":720}"));
+        imageInfoCache.evict(ID);
+        when(redisImageInfoRepo.findById(ID)).thenReturn(Optional.empty());
+        assertFalse(imageInfoCache.get(ID).isPresent());
+        verify(redisImageInfoRepo).deleteById(ID);
+        verify(redisTemplate).convertAndSend(eq(ImageInfoCache.CHANNEL), any(String.class));
+    }
+
+    @Test
+    public void testEvictWithRedisDown() throws IOException {
+        imageInfoCache.put(ID, new ObjectMapper().readTree("{\"width\":960,\"height\":720}"));
+        doThrow(new QueryTimeoutException("Redis command timed out")).when(redisImageInfoRepo).deleteById(ID);
+        imageInfoCache.evict(ID);
+        when(redisImageInfoRepo.findById(ID)).thenReturn(Optional.empty());
+        assertFalse(imageInfoCache.get(ID).isPresent());
+        verify(redisTemplate).convertAndSend(eq(ImageInfoCache.CHANNEL), any(String.class));
+    }
+
+    @Test
+    public void testEvictedByOtherInstance() throws IOException {
+        imageInfoCache.put(ID, new ObjectMapper().readTree("{\"width\":960,\"height\":720}"));
+        imageInfoCache.onMessage(message("other " + ID), null);
+        when(redisImageInfoRepo.findById(ID)).thenReturn(Optional.empty());
+        assertFalse(imageInfoCache.get(ID).isPresent());
+    }
+
+    @Test
+    public void testIgnoresOwnEviction() throws IOException {
+        imageInfoCache.evict(ID);
+        ArgumentCaptor<String> eviction = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(ImageInfoCache.CHANNEL), eviction.capture());
+        imageInfoCache.put(ID, new ObjectMapper().readTree("{\"width\":960,\"height\":720}"));
+        imageInfoCache.onMessage(message(eviction.getValue()), null);
+        assertTrue(imageInfoCache.get(ID).isPresent());
+        assertEquals(1, count("local-hit"));
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(ImageInfoCache.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("iiif.image.info.cache", "result", result).count();
+    }
+
+}
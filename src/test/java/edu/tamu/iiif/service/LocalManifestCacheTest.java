@@ -0,0 +1,137 @@
+package edu.tamu.iiif.service;
+
+import static edu.tamu.iiif.model.ManifestType.PRESENTATION;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.RedisManifest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class LocalManifestCacheTest {
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final String SEQUENCE_KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:SEQUENCE::";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private LocalManifestCache localManifestCache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        localManifestCache = new LocalManifestCache(redisTemplate, meterRegistry, 1048576, false, 600000);
+    }
+
+    @Test
+    public void testPut() throws IOException {
+        RedisManifest manifest = manifest("etag");
+        ManifestBody body = body("{}", "etag");
+        localManifestCache.put(manifest, body, localManifestCache.getVersion(KEY));
+
+        assertEquals(Optional.of(manifest), localManifestCache.find(KEY));
+        assertEquals(Optional.of(body), localManifestCache.findBody(manifest));
+        assertFalse(localManifestCache.findBody(manifest("other")).isPresent());
+        assertTrue(localManifestCache.getBytes() > 2);
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "iiif.manifest.local-cache").gauge().value());
+    }
+
+    @Test
+    public void testPutAfterInvalidation() throws IOException {
+        long version = localManifestCache.getVersion(KEY);
+        localManifestCache.onMessage(new DefaultMessage(LocalManifestCache.CHANNEL.getBytes(StandardCharsets.UTF_8), ("other " + KEY).getBytes(StandardCharsets.UTF_8)), null);
+        localManifestCache.put(manifest("etag"), body("{}", "etag"), version);
+        assertFalse(localManifestCache.find(KEY).isPresent());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.local-cache.invalidations").tag("source", "remote").counter().count());
+    }
+
+    @Test
+    public void testPutAfterInvalidationOfOtherManifest() throws IOException {
+        long version = localManifestCache.getVersion(KEY);
+        localManifestCache.onMessage(new DefaultMessage(LocalManifestCache.CHANNEL.getBytes(StandardCharsets.UTF_8), ("other " + SEQUENCE_KEY).getBytes(StandardCharsets.UTF_8)), null);
+        localManifestCache.put(manifest("etag"), body("{}", "etag"), version);
+        assertTrue(localManifestCache.find(KEY).isPresent());
+    }
+
+    @Test
+    public void testSavedPublishes() throws IOException {
+        localManifestCache.put(manifest("old"), body("{\"old\":true}", "old"), localManifestCache.getVersion(KEY));
+        RedisManifest saved = manifest("new");
+        localManifestCache.saved(saved, body("{}", "new"));
+        assertEquals(Optional.of(saved), localManifestCache.find(KEY));
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(LocalManifestCache.CHANNEL), message.capture());
+        assertTrue(message.getValue().endsWith(" " + KEY));
+
+        // the own invalidation echoed by Redis keeps the entry
+        localManifestCache.onMessage(new DefaultMessage(LocalManifestCache.CHANNEL.getBytes(StandardCharsets.UTF_8), message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+        assertTrue(localManifestCache.find(KEY).isPresent());
+
+        localManifestCache.deleted(KEY);
+        assertFalse(localManifestCache.find(KEY).isPresent());
+        assertEquals(0, localManifestCache.getBytes());
+    }
+
+    @Test
+    public void testOffHeap() throws IOException {
+        localManifestCache = new LocalManifestCache(redisTemplate, meterRegistry, 1048576, true, 600000);
+        RedisManifest manifest = manifest("etag");
+        ManifestBody body = body("{\"label\":\"Sports car\"}", "etag");
+        localManifestCache.put(manifest, body, localManifestCache.getVersion(KEY));
+
+        Optional<ManifestBody> cached = localManifestCache.findBody(manifest);
+        assertTrue(cached.isPresent());
+        assertArrayEquals(body.getBytes(), cached.get().getBytes());
+        assertEquals(ManifestEncoding.GZIP, cached.get().getEncoding());
+        assertEquals("{\"label\":\"Sports car\"}", cached.get().decode());
+    }
+
+    @Test
+    public void testDisabled() throws IOException {
+        localManifestCache = new LocalManifestCache(redisTemplate, meterRegistry, 0, false, 600000);
+        localManifestCache.saved(manifest("etag"), body("{}", "etag"));
+        assertFalse(localManifestCache.find(KEY).isPresent());
+        verify(redisTemplate).convertAndSend(eq(LocalManifestCache.CHANNEL), anyString());
+    }
+
+    private static RedisManifest manifest(String etag) {
+        RedisManifest manifest = new RedisManifest("MTIzNDU2Nzg5LzE1ODMwOA==", PRESENTATION, "dspace-rdf", null);
+        manifest.setId(KEY);
+        manifest.setEtag(etag);
+        manifest.setEncoding(ManifestEncoding.GZIP);
+        return manifest;
+    }
+
+    private static ManifestBody body(String json, String etag) throws IOException {
+        return new ManifestBody(ManifestEncoding.GZIP.encode(json.getBytes(StandardCharsets.UTF_8)), ManifestEncoding.GZIP, etag);
+    }
+
+}
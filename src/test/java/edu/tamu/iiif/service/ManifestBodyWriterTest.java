@@ -0,0 +1,79 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.text.StringEscapeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import de.digitalcollections.iiif.presentation.model.api.v2.Collection;
+import de.digitalcollections.iiif.presentation.model.api.v2.Metadata;
+import de.digitalcollections.iiif.presentation.model.impl.jackson.v2.IiifPresentationApiObjectMapper;
+import de.digitalcollections.iiif.presentation.model.impl.v2.CollectionImpl;
+import de.digitalcollections.iiif.presentation.model.impl.v2.PropertyValueSimpleImpl;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.ManifestValidators;
+
+@ExtendWith(SpringExtension.class)
+public class ManifestBodyWriterTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testWrite() throws IOException {
+        ObjectMapper mapper = new IiifPresentationApiObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY);
+
+        Collection collection = new CollectionImpl(URI.create("http://localhost:9000/collection/dspace-rdf:123456789/158299"), new PropertyValueSimpleImpl("Sports \"cars\" a/b \u00e9"), new ArrayList<Metadata>());
+        String expected = StringEscapeUtils.unescapeJson(mapper.writeValueAsString(collection));
+
+        ManifestBody body = new ManifestBodyWriter(false, "none").write(collection);
+        assertEquals(ManifestEncoding.NONE, body.getEncoding());
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), body.getBytes());
+        assertEquals(ManifestValidators.etag(expected), body.getEtag());
+
+        ManifestBody gzipped = new ManifestBodyWriter(false, "gzip").write(collection);
+        assertEquals(ManifestEncoding.GZIP, gzipped.getEncoding());
+        assertEquals(expected, gzipped.decode());
+        assertEquals(body.getEtag(), gzipped.getEtag());
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        ManifestBodyWriter manifestBodyWriter = new ManifestBodyWriter(false, "gzip");
+        for (File manifest : FileUtils.listFiles(new File("src/test/resources/mock"), new String[] { "json" }, true)) {
+            String json = FileUtils.readFileToString(manifest, StandardCharsets.UTF_8);
+            String expected = StringEscapeUtils.unescapeJson(json);
+            ManifestBody body = manifestBodyWriter.writeJson(json);
+            assertEquals(expected, body.decode(), manifest.getPath());
+            assertEquals(ManifestValidators.etag(expected), body.getEtag(), manifest.getPath());
+        }
+    }
+
+    @Test
+    public void testWriteCompact() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode manifest = objectMapper.readTree(new File("src/test/resources/mock/dspace/json/presentation.json"));
+        ManifestBody indented = new ManifestBodyWriter(false, "none").write(manifest);
+        ManifestBody compact = new ManifestBodyWriter(true, "none").write(manifest);
+        assertFalse(compact.decode().contains("\n"));
+        assertEquals(objectMapper.readTree(indented.decode()), objectMapper.readTree(compact.decode()));
+    }
+
+}
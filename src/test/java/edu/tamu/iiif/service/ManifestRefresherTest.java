@@ -0,0 +1,159 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.service.ManifestRefresher.Refresh;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+public class ManifestRefresherTest {
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final ManifestBody BODY = new ManifestBody("{}".getBytes(StandardCharsets.UTF_8), ManifestEncoding.NONE);
+
+    private MeterRegistry meterRegistry;
+
+    private ManifestRefresher manifestRefresher;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        manifestRefresher = new ManifestRefresher(meterRegistry, 1, 10, 60000);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        manifestRefresher.shutdown();
+    }
+
+    @Test
+    public void testRefresh() throws InterruptedException {
+        CountDownLatch refreshed = new CountDownLatch(1);
+        assertEquals(Refresh.SCHEDULED, manifestRefresher.refresh(KEY, false, () -> {
+            refreshed.countDown();
+            return BODY;
+        }));
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.refresh").tag("result", "scheduled").counter().count());
+    }
+
+    @Test
+    public void testCoalesceInProgress() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        assertEquals(Refresh.SCHEDULED, manifestRefresher.refresh(KEY, false, () -> {
+            refreshes.incrementAndGet();
+            started.countDown();
+            release.await();
+            return BODY;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Refresh.IN_PROGRESS, manifestRefresher.refresh(KEY, false, () -> {
+            refreshes.incrementAndGet();
+            return BODY;
+        }));
+        release.countDown();
+
+        awaitIdle();
+        assertEquals(1, refreshes.get());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.refresh").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    public void testRateLimited() throws InterruptedException {
+        CountDownLatch refreshed = new CountDownLatch(1);
+        manifestRefresher.refresh(KEY, false, () -> {
+            refreshed.countDown();
+            return BODY;
+        });
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+
+        assertEquals(Refresh.RATE_LIMITED, manifestRefresher.refresh(KEY, false, () -> BODY));
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.refresh").tag("result", "rate-limited").counter().count());
+    }
+
+    @Test
+    public void testForcedRerun() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch rerun = new CountDownLatch(2);
+        manifestRefresher.refresh(KEY, false, () -> {
+            rerun.countDown();
+            started.countDown();
+            release.await();
+            return BODY;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Refresh.IN_PROGRESS, manifestRefresher.refresh(KEY, true, () -> BODY));
+        release.countDown();
+
+        assertTrue(rerun.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+        assertEquals(Refresh.SCHEDULED, manifestRefresher.refresh(KEY, true, () -> BODY));
+    }
+
+    @Test
+    public void testForcedRunsWhenQueueFull() throws InterruptedException {
+        manifestRefresher = new ManifestRefresher(meterRegistry, 1, 1, 60000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        manifestRefresher.refresh(KEY, false, () -> {
+            started.countDown();
+            release.await();
+            return BODY;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(Refresh.SCHEDULED, manifestRefresher.refresh(KEY + "queued", false, () -> BODY));
+
+        assertEquals(Refresh.REJECTED, manifestRefresher.refresh(KEY + "update", false, () -> BODY));
+
+        AtomicInteger forced = new AtomicInteger();
+        assertEquals(Refresh.REFRESHED, manifestRefresher.refresh(KEY + "forced", true, () -> {
+            forced.incrementAndGet();
+            return BODY;
+        }));
+        assertEquals(1, forced.get());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.refresh").tag("result", "caller-runs").counter().count());
+        assertEquals(1.0, meterRegistry.get("iiif.manifest.refresh").tag("result", "rejected").counter().count());
+
+        release.countDown();
+        awaitIdle();
+    }
+
+    @Test
+    public void testDisabled() {
+        manifestRefresher = new ManifestRefresher(meterRegistry, 0, 10, 60000);
+        assertFalse(manifestRefresher.isEnabled());
+        assertEquals(Refresh.REJECTED, manifestRefresher.refresh(KEY, false, () -> BODY));
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manifestRefresher.getRefreshing() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, manifestRefresher.getRefreshing());
+    }
+
+}
@@ -0,0 +1,106 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.jena.rdf.model.Model;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.exception.NotFoundException;
+import edu.tamu.iiif.utility.RdfModelUtility;
+
+@ExtendWith(SpringExtension.class)
+public class RdfDocumentCacheTest {
+
+    private static final String URL = "http://localhost:8080/rdf/handle/123456789/158308";
+
+    private static final String RDF = "<http://localhost:8080/rdf/handle/123456789/158308> <http://purl.org/dc/terms/title> \"Test\" .";
+
+    private static final String CHANGED_RDF = "<http://localhost:8080/rdf/handle/123456789/158308> <http://purl.org/dc/terms/title> \"Changed\" .";
+
+    private static final String ETAG = "\"abc123\"";
+
+    private final List<HttpHeaders> requests = new ArrayList<HttpHeaders>();
+
+    @Test
+    public void testGetModelFreshFromCache() throws NotFoundException {
+        RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(1048576, 60000);
+        Model first = rdfDocumentCache.getModel(URL, this::ok);
+        Model second = rdfDocumentCache.getModel(URL, this::ok);
+        assertEquals(1, requests.size());
+        assertTrue(first.isIsomorphicWith(second));
+    }
+
+    @Test
+    public void testGetModelRevalidates() throws NotFoundException {
+        RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(1048576, 0);
+        Model first = rdfDocumentCache.getModel(URL, this::ok);
+        Model second = rdfDocumentCache.getModel(URL, this::notModified);
+        assertEquals(2, requests.size());
+        assertFalse(requests.get(0).containsKey(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(ETAG, requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertTrue(first.isIsomorphicWith(second));
+    }
+
+    @Test
+    public void testGetModelRevalidatesUpdateWithinInterval() throws NotFoundException {
+        RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(1048576, 60000);
+        rdfDocumentCache.getModel(URL, this::ok);
+        // the RDF changed right after it was cached, an update generation must see the change
+        Model updated = rdfDocumentCache.getModel(URL, Optional.empty(), true, this::changed);
+        assertEquals(2, requests.size());
+        assertEquals(ETAG, requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertTrue(updated.isIsomorphicWith(RdfModelUtility.createRdfModel(CHANGED_RDF)));
+        // and later generations get the changed document from cache
+        assertTrue(rdfDocumentCache.getModel(URL, this::ok).isIsomorphicWith(updated));
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void testGetModelBoundedByBytes() throws NotFoundException {
+        RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(0, 60000);
+        rdfDocumentCache.getModel(URL, this::ok);
+        rdfDocumentCache.getModel(URL, this::ok);
+        assertEquals(2, requests.size());
+        assertEquals(0, rdfDocumentCache.size());
+    }
+
+    @Test
+    public void testGetModelNotFound() {
+        RdfDocumentCache rdfDocumentCache = new RdfDocumentCache(1048576, 60000);
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            rdfDocumentCache.getModel(URL, (url, headers) -> new ResponseEntity<Model>(HttpStatus.OK));
+        });
+    }
+
+    private ResponseEntity<Model> ok(String url, HttpHeaders headers) {
+        requests.add(headers);
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setETag(ETAG);
+        return new ResponseEntity<Model>(RdfModelUtility.createRdfModel(RDF), responseHeaders, HttpStatus.OK);
+    }
+
+    private ResponseEntity<Model> changed(String url, HttpHeaders headers) {
+        requests.add(headers);
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setETag("\"def456\"");
+        return new ResponseEntity<Model>(RdfModelUtility.createRdfModel(CHANGED_RDF), responseHeaders, HttpStatus.OK);
+    }
+
+    private ResponseEntity<Model> notModified(String url, HttpHeaders headers) {
+        requests.add(headers);
+        return new ResponseEntity<Model>(HttpStatus.NOT_MODIFIED);
+    }
+
+}
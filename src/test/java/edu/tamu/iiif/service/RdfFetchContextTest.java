@@ -0,0 +1,64 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.exception.NotFoundException;
+
+@ExtendWith(SpringExtension.class)
+public class RdfFetchContextTest {
+
+    @Test
+    public void testGetModelFetchesOnce() throws NotFoundException {
+        AtomicInteger loads = new AtomicInteger();
+        try (RdfFetchContext context = RdfFetchContext.open()) {
+            Model first = context.getModel("http://localhost:9000/item", url -> {
+                loads.incrementAndGet();
+                return ModelFactory.createDefaultModel();
+            });
+            Model second = context.getModel("http://localhost:9000/item", url -> {
+                loads.incrementAndGet();
+                return ModelFactory.createDefaultModel();
+            });
+            assertSame(first, second);
+            assertEquals(1, loads.get());
+            assertEquals(1, context.getFetches());
+            assertEquals(1, context.getDuplicates());
+        }
+    }
+
+    @Test
+    public void testFailureIsNotMemoized() throws NotFoundException {
+        try (RdfFetchContext context = RdfFetchContext.open()) {
+            Assertions.assertThrows(NotFoundException.class, () -> {
+                context.getModel("http://localhost:9000/item", url -> {
+                    throw new NotFoundException("This is only a test!");
+                });
+            });
+            Model model = context.getModel("http://localhost:9000/item", url -> ModelFactory.createDefaultModel());
+            assertTrue(model.isEmpty());
+            assertEquals(2, context.getFetches());
+            assertEquals(0, context.getDuplicates());
+        }
+    }
+
+    @Test
+    public void testCloseDetachesContext() {
+        RdfFetchContext context = RdfFetchContext.open();
+        assertTrue(RdfFetchContext.current().isPresent());
+        context.close();
+        assertFalse(RdfFetchContext.current().isPresent());
+    }
+
+}
@@ -0,0 +1,115 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class RedisIndexSweeperTest {
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final String BODY_KEY = "iiif-manifest-body:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION::";
+
+    private static final String PATH_KEY = "iiif-manifest-path:MTIzNDU2Nzg5LzE1ODMwOA==";
+
+    private static final String SEQUENCE_KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:SEQUENCE::";
+
+    private static final String INDEX = "resource:url:http://localhost:9000/fcrepo/rest/image01";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private Cursor<String> cursor;
+
+    private MeterRegistry meterRegistry;
+
+    private RedisIndexSweeper redisIndexSweeper;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        GenerationLease generationLease = new GenerationLease(redisTemplate, meterRegistry, false, 30000, 500, 600000);
+        redisIndexSweeper = new RedisIndexSweeper(redisTemplate, generationLease, meterRegistry, 0);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        redisIndexSweeper.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSweep() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.scan(eq("resource"), any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn("orphan", "resource");
+        // existence of the batch, then the index sets of the orphans
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(false, true), Arrays.<Object>asList(Collections.singleton(INDEX)));
+        when(redisTemplate.execute(any(RedisScript.class), eq(Arrays.asList("resource", "resource:orphan", "resource:orphan:idx", INDEX)), eq("orphan"))).thenReturn(1L);
+        assertEquals(1, redisIndexSweeper.sweep("resource"));
+        assertEquals(1, meterRegistry.get("iiif.redis.index-sweeper.removed").tag("entry", "index").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSweepBodies() {
+        when(redisTemplate.executeWithStickyConnection(any(RedisCallback.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(BODY_KEY);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(false));
+        when(redisTemplate.execute(any(RedisScript.class), eq(Arrays.asList(KEY, BODY_KEY)))).thenReturn(1L);
+        assertEquals(1, redisIndexSweeper.sweepBodies());
+        assertEquals(1, meterRegistry.get("iiif.redis.index-sweeper.removed").tag("entry", "body").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSweepPaths() {
+        when(redisTemplate.executeWithStickyConnection(any(RedisCallback.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(PATH_KEY);
+        // members of the path sets, then their existence
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(new LinkedHashSet<String>(Arrays.asList(KEY, SEQUENCE_KEY))), Arrays.<Object>asList(true, false));
+        when(redisTemplate.execute(any(RedisScript.class), eq(Arrays.asList(SEQUENCE_KEY, PATH_KEY)))).thenReturn(1L);
+        assertEquals(1, redisIndexSweeper.sweepPaths());
+        assertEquals(1, meterRegistry.get("iiif.redis.index-sweeper.removed").tag("entry", "path").counter().count());
+    }
+
+    @Test
+    public void testSize() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.size("resource")).thenReturn(42L);
+        assertEquals(42, redisIndexSweeper.size("resource"));
+    }
+
+}
@@ -0,0 +1,281 @@
+package edu.tamu.iiif.service;
+
+import static edu.tamu.iiif.model.ManifestType.PRESENTATION;
+import static edu.tamu.iiif.model.ManifestType.SEQUENCE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.config.model.ManifestTtlConfig;
+import edu.tamu.iiif.model.CacheSize;
+import edu.tamu.iiif.model.ManifestBody;
+import edu.tamu.iiif.model.ManifestEncoding;
+import edu.tamu.iiif.model.RedisManifest;
+import edu.tamu.iiif.model.repo.RedisManifestRepo;
+import edu.tamu.iiif.service.GenerationLease.Lease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class RedisManifestStoreTest {
+
+    private static final String PATH = "MTIzNDU2Nzg5LzE1ODMwOA==";
+
+    private static final String KEY = "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION:image/jpeg;image/png:";
+
+    private static final String BODY_KEY = "iiif-manifest-body:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:PRESENTATION:image/jpeg;image/png:";
+
+    private static final String PATH_KEY = "iiif-manifest-path:MTIzNDU2Nzg5LzE1ODMwOA==";
+
+    @Mock
+    private RedisTemplate<String, RedisManifest> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, RedisManifest> valueOperations;
+
+    @Mock
+    private RedisManifestRepo redisManifestRepo;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private Cursor<String> legacyIds;
+
+    @Mock
+    private Cursor<String> manifestKeys;
+
+    private ManifestBodyWriter manifestBodyWriter = new ManifestBodyWriter(false, "gzip");
+
+    private ManifestTtlConfig manifestTtlConfig = new ManifestTtlConfig();
+
+    private LocalManifestCache localManifestCache;
+
+    private RedisManifestStore redisManifestStore;
+
+    @BeforeEach
+    public void setup() {
+        localManifestCache = new LocalManifestCache(stringRedisTemplate, new SimpleMeterRegistry(), 1048576, false, 600000);
+        redisManifestStore = new RedisManifestStore(redisTemplate, redisManifestRepo, true, manifestBodyWriter, localManifestCache, manifestTtlConfig);
+    }
+
+    @Test
+    public void testKey() {
+        assertEquals(KEY, RedisManifestStore.key(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg;image/png", ""));
+        assertEquals(KEY, RedisManifestStore.key(PATH, PRESENTATION, "dspace-rdf", "image/jpeg;image/png", ""));
+    }
+
+    @Test
+    public void testFind() {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", "{}");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(manifest);
+        Optional<RedisManifest> found = redisManifestStore.find(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "");
+        assertTrue(found.isPresent());
+        assertEquals("{}", found.get().getJson());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindBody() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        manifest.setId(KEY);
+        manifest.setEncoding(ManifestEncoding.GZIP);
+        byte[] gzipped = ManifestEncoding.GZIP.encode("{\"label\":\"\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(Arrays.asList(null, gzipped));
+        Optional<ManifestBody> body = redisManifestStore.findBody(manifest);
+        assertTrue(body.isPresent());
+        assertEquals(ManifestEncoding.GZIP, body.get().getEncoding());
+        assertArrayEquals(gzipped, body.get().getBytes());
+        assertEquals("{\"label\":\"\u00e9\"}", body.get().decode());
+
+        // served from the local cache from now on
+        assertTrue(redisManifestStore.findBody(manifest).isPresent());
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testFindSaved() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        ManifestBody body = manifestBodyWriter.writeJson("{}");
+        redisManifestStore.save(manifest, body);
+        verify(stringRedisTemplate).convertAndSend(eq(LocalManifestCache.CHANNEL), any(String.class));
+
+        Optional<RedisManifest> found = redisManifestStore.find(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "");
+        assertTrue(found.isPresent());
+        assertEquals(Optional.of(body), redisManifestStore.findBody(found.get()));
+        verify(redisTemplate, never()).opsForValue();
+
+        redisManifestStore.delete(found.get());
+        assertFalse(localManifestCache.find(KEY).isPresent());
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindBodyExtendsExpiry() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        manifest.setId(KEY);
+        manifest.setEncoding(ManifestEncoding.NONE);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(Arrays.asList(null, "{}".getBytes(StandardCharsets.UTF_8)));
+        redisManifestStore.findBody(manifest);
+        redisManifestStore.findBody(manifest);
+        // extended once per refresh interval
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindBodyWithoutTtl() throws IOException {
+        manifestTtlConfig.setFallback(0);
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        manifest.setId(KEY);
+        manifest.setEncoding(ManifestEncoding.NONE);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(Arrays.asList(null, "{}".getBytes(StandardCharsets.UTF_8)));
+        redisManifestStore.findBody(manifest);
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReport() {
+        when(redisTemplate.executeWithStickyConnection(any(RedisCallback.class))).thenReturn(manifestKeys);
+        when(manifestKeys.hasNext()).thenReturn(true, true, true, false);
+        when(manifestKeys.next()).thenReturn(KEY, "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOQ==:dspace-rdf:PRESENTATION::", "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:fedora-pcdm:COLLECTION::");
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(100L, 1000L, 200L, 2000L, 50L, null));
+        List<CacheSize> report = redisManifestStore.report();
+        assertEquals(2, report.size());
+        assertEquals("dspace-rdf", report.get(0).getRepository());
+        assertEquals("PRESENTATION", report.get(0).getType());
+        assertEquals(2, report.get(0).getCount());
+        assertEquals(3300, report.get(0).getBytes());
+        assertEquals("fedora-pcdm", report.get(1).getRepository());
+        assertEquals(1, report.get(1).getCount());
+        assertEquals(50, report.get(1).getBytes());
+        verify(manifestKeys).close();
+    }
+
+    @Test
+    public void testFindBodyInline() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "{\"label\":\"a\\/b\"}");
+        Optional<ManifestBody> body = redisManifestStore.findBody(manifest);
+        assertTrue(body.isPresent());
+        assertEquals(ManifestEncoding.NONE, body.get().getEncoding());
+        assertEquals("{\"label\":\"a/b\"}", body.get().decode());
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testSave() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        redisManifestStore.save(manifest, manifestBodyWriter.writeJson("{}"));
+        assertEquals(KEY, manifest.getId());
+        assertEquals("image/png;image/jpeg", manifest.getAllowed());
+        assertEquals("99914b932bd37a50b983c5e7c90ae93b", manifest.getEtag());
+        assertEquals(ManifestEncoding.GZIP, manifest.getEncoding());
+        assertNull(manifest.getJson());
+        verify(redisTemplate).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testSaveFenced() throws IOException {
+        Lease lease = new Lease(GenerationLease.LEASE_PREFIX + KEY, 7);
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), eq(Arrays.asList(lease.getKey(), KEY, BODY_KEY, PATH_KEY)), any(), any(), any(), any())).thenReturn(1L, 0L);
+        ManifestBody body = manifestBodyWriter.writeJson("{}");
+        assertTrue(redisManifestStore.save(new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null), body, lease));
+        assertFalse(redisManifestStore.save(new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null), body, lease));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testSaveWithoutLease() throws IOException {
+        RedisManifest manifest = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", null);
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        assertTrue(redisManifestStore.save(manifest, manifestBodyWriter.writeJson("{}"), Lease.NONE));
+        verify(redisTemplate).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindByPath() {
+        RedisManifest presentation = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "{}");
+        RedisManifest sequence = new RedisManifest(PATH, SEQUENCE, "dspace-rdf", "{}");
+        List<String> keys = Arrays.asList(KEY, "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:SEQUENCE::", "iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:CANVAS::");
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(keys);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(presentation, sequence, null));
+        List<RedisManifest> manifests = redisManifestStore.findByPath(PATH);
+        assertEquals(2, manifests.size());
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testMigrate() throws IOException {
+        RedisManifest legacy = new RedisManifest(PATH, PRESENTATION, "dspace-rdf", "image/png;image/jpeg", "", "{}");
+        legacy.setId("legacy");
+        RedisManifest existing = new RedisManifest(PATH, SEQUENCE, "dspace-rdf", "{}");
+        existing.setId("existing");
+        when(redisTemplate.executeWithStickyConnection(any(RedisCallback.class))).thenReturn(legacyIds);
+        when(legacyIds.hasNext()).thenReturn(true, true, true, false);
+        when(legacyIds.next()).thenReturn("legacy", "existing", "expired");
+        when(redisManifestRepo.findAllById(Arrays.asList("legacy", "existing", "expired"))).thenReturn(Arrays.asList(legacy, existing));
+        when(redisTemplate.hasKey(KEY)).thenReturn(false);
+        when(redisTemplate.hasKey("iiif-manifest:MTIzNDU2Nzg5LzE1ODMwOA==:dspace-rdf:SEQUENCE::")).thenReturn(true);
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        assertEquals(1, redisManifestStore.migrate());
+        assertEquals(KEY, legacy.getId());
+        assertEquals(ManifestEncoding.GZIP, legacy.getEncoding());
+        assertEquals("99914b932bd37a50b983c5e7c90ae93b", legacy.getEtag());
+        assertNull(legacy.getJson());
+        verify(redisTemplate).execute(any(RedisCallback.class));
+        verify(redisManifestRepo).deleteById("legacy");
+        verify(redisManifestRepo).deleteById("existing");
+        verify(redisManifestRepo, never()).findAll();
+        verify(legacyIds).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMigrateDisabled() {
+        redisManifestStore = new RedisManifestStore(redisTemplate, redisManifestRepo, false, manifestBodyWriter, localManifestCache, manifestTtlConfig);
+        redisManifestStore.migrateOnStartup();
+        verify(redisTemplate, never()).executeWithStickyConnection(any(RedisCallback.class));
+    }
+
+}
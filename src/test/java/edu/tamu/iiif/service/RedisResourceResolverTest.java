@@ -3,24 +3,41 @@ package edu.tamu.iiif.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import edu.tamu.iiif.exception.NotFoundException;
 import edu.tamu.iiif.model.RedisResource;
 import edu.tamu.iiif.model.repo.RedisResourceRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 @ExtendWith(MockitoExtension.class)
@@ -29,14 +46,25 @@ public class RedisResourceResolverTest {
     @MockBean
     private RedisResourceRepo redisResourceRepo;
 
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
     private RedisResourceResolver redisResourceResolver = new RedisResourceResolver();
 
     private final RedisResource mockResource = new RedisResource("http://localhost:9000/fcrepo/rest/image01");
 
     private final RedisResource mockResourceNotExist = new RedisResource("http://localhost:9000/fcrepo/rest/image02");
 
+    private final ResolverNearCache nearCache = new ResolverNearCache(new SimpleMeterRegistry(), 1000, 0, 30000, "");
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
     @BeforeEach
     public void setup() {
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.get("resource:" + mockResource.getId(), "url")).thenReturn(mockResource.getUrl());
+
         when(redisResourceRepo.existsById(mockResource.getId())).thenReturn(true);
         when(redisResourceRepo.findById(mockResource.getId())).thenReturn(Optional.of(mockResource));
         when(redisResourceRepo.findByUrl(mockResource.getUrl())).thenReturn(Optional.of(mockResource));
@@ -48,6 +76,9 @@ public class RedisResourceResolverTest {
         when(redisResourceRepo.existsById(mockResourceNotExist.getId())).thenReturn(false);
 
         setField(redisResourceResolver, "redisResourceRepo", redisResourceRepo);
+        setField(redisResourceResolver, "redisTemplate", redisTemplate);
+        setField(redisResourceResolver, "resourceRegistry", new ResourceRegistry(redisTemplate, new SimpleMeterRegistry(), false, 1000, 1000, 100000));
+        setField(redisResourceResolver, "nearCache", nearCache);
     }
 
     @Test
@@ -75,6 +106,38 @@ public class RedisResourceResolverTest {
         assertEquals(mockResource.getUrl(), url);
     }
 
+    @Test
+    public void testResolveSingleRead() throws NotFoundException {
+        assertEquals(mockResource.getUrl(), redisResourceResolver.resolve(mockResource.getId()));
+        verify(hashOperations, times(1)).get("resource:" + mockResource.getId(), "url");
+        verify(redisResourceRepo, never()).existsById(mockResource.getId());
+        verify(redisResourceRepo, never()).findById(mockResource.getId());
+    }
+
+    @Test
+    public void testResolveCached() throws NotFoundException {
+        redisResourceResolver.resolve(mockResource.getId());
+        assertEquals(mockResource.getUrl(), redisResourceResolver.resolve(mockResource.getId()));
+        verify(hashOperations, times(1)).get("resource:" + mockResource.getId(), "url");
+    }
+
+    @Test
+    public void testResolveLookedUp() throws NotFoundException, URISyntaxException {
+        redisResourceResolver.lookup(mockResource.getUrl());
+        assertEquals(mockResource.getUrl(), redisResourceResolver.resolve(mockResource.getId()));
+        verify(hashOperations, never()).get("resource:" + mockResource.getId(), "url");
+    }
+
+    @Test
+    public void testRemoveEvicts() throws NotFoundException {
+        redisResourceResolver.resolve(mockResource.getId());
+        redisResourceResolver.remove(mockResource.getId());
+        when(hashOperations.get("resource:" + mockResource.getId(), "url")).thenReturn(null);
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            redisResourceResolver.resolve(mockResource.getId());
+        });
+    }
+
     @Test
     public void testResolveNotFound() throws NotFoundException {
         Assertions.assertThrows(NotFoundException.class, () -> {
@@ -87,6 +150,80 @@ public class RedisResourceResolverTest {
         redisResourceResolver.remove(mockResource.getId());
     }
 
+    @Test
+    public void testResolveExtendsExpiry() throws NotFoundException {
+        setField(redisResourceResolver, "ttl", 86400000L);
+        setField(redisResourceResolver, "refreshInterval", 3600000L);
+        redisResourceResolver.resolve(mockResource.getId());
+        redisResourceResolver.resolve(mockResource.getId());
+        // extended once per refresh interval
+        verify(redisTemplate, times(1)).expire("resource:" + mockResource.getId(), 86400000L, TimeUnit.MILLISECONDS);
+        verify(redisTemplate, times(1)).expire("resource:" + mockResource.getId() + ":phantom", 86700000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testResolveWithoutTtl() throws NotFoundException {
+        redisResourceResolver.resolve(mockResource.getId());
+        verify(redisTemplate, never()).expire(any(String.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testLookupOrCreate() throws URISyntaxException {
+        when(redisResourceRepo.findByUrl(mockResourceNotExist.getUrl())).thenReturn(Optional.empty());
+        when(redisResourceRepo.save(any(RedisResource.class))).thenReturn(mockResourceNotExist);
+        assertEquals(mockResourceNotExist.getId(), redisResourceResolver.lookupOrCreate(mockResourceNotExist.getUrl()));
+        verify(redisResourceRepo).save(any(RedisResource.class));
+    }
+
+    @Test
+    public void testLookupOrCreateWriteBehind() throws URISyntaxException, NotFoundException {
+        ResourceRegistry resourceRegistry = new ResourceRegistry(redisTemplate, new SimpleMeterRegistry(), true, 60000, 1000, 100000);
+        setField(redisResourceResolver, "resourceRegistry", resourceRegistry);
+        try {
+            String url = mockResourceNotExist.getUrl();
+            assertEquals(mockResourceNotExist.getId(), redisResourceResolver.lookupOrCreate(url));
+            // resolved before written
+            assertEquals(url, redisResourceResolver.resolve(mockResourceNotExist.getId()));
+            assertEquals(mockResourceNotExist.getId(), redisResourceResolver.lookup(url));
+            verify(redisResourceRepo, never()).findByUrl(url);
+            verify(redisResourceRepo, never()).save(any(RedisResource.class));
+
+            assertEquals(1, resourceRegistry.flush());
+            verify(hashOperations).putAll(ResourceRegistry.KEY, Collections.singletonMap(mockResourceNotExist.getId(), url));
+        } finally {
+            resourceRegistry.shutdown();
+        }
+    }
+
+    @Test
+    public void testResolveWriteBehindStoredEarlier() throws NotFoundException {
+        setField(redisResourceResolver, "resourceRegistry", new ResourceRegistry(redisTemplate, new SimpleMeterRegistry(), true, 60000, 1000, 100000));
+        assertEquals(mockResource.getUrl(), redisResourceResolver.resolve(mockResource.getId()));
+        verify(hashOperations).get(ResourceRegistry.KEY, mockResource.getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLookupOrCreateAll() throws URISyntaxException {
+        List<String> urls = Arrays.asList(mockResource.getUrl(), mockResourceNotExist.getUrl());
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(true, false));
+        Map<String, String> ids = redisResourceResolver.lookupOrCreateAll(urls);
+        assertEquals(Arrays.asList(mockResource.getId(), mockResourceNotExist.getId()), new ArrayList<String>(ids.values()));
+        ArgumentCaptor<Iterable<RedisResource>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(redisResourceRepo).saveAll(saved.capture());
+        assertEquals(mockResourceNotExist.getId(), saved.getValue().iterator().next().getId());
+        verify(redisResourceRepo, never()).findByUrl(any(String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testResolveAll() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(mockResource.getUrl(), null));
+        Map<String, String> urls = redisResourceResolver.resolveAll(Arrays.asList(mockResource.getId(), mockResourceNotExist.getId(), mockResource.getId()));
+        assertEquals(Collections.singletonMap(mockResource.getId(), mockResource.getUrl()), urls);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
     @Test
     public void testRemoveNotFound() throws NotFoundException {
         Assertions.assertThrows(NotFoundException.class, () -> {
@@ -1,13 +1,22 @@
 package edu.tamu.iiif.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.utils.URIBuilder;
@@ -15,7 +24,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
@@ -23,6 +34,7 @@ import org.springframework.http.RequestEntity.BodyBuilder;
 import org.springframework.http.RequestEntity.HeadersBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import edu.tamu.iiif.config.model.AdminConfig.Credentials;
@@ -30,6 +42,7 @@ import edu.tamu.iiif.config.model.ResolverConfig;
 import edu.tamu.iiif.config.model.ResolverConfig.ResolverType;
 import edu.tamu.iiif.exception.NotFoundException;
 import edu.tamu.iiif.model.RedisResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 public class RemoteResourceResolverTest {
@@ -45,6 +58,8 @@ public class RemoteResourceResolverTest {
 
     private final ResolverConfig resolver = new ResolverConfig();
 
+    private final ResolverNearCache nearCache = new ResolverNearCache(new SimpleMeterRegistry(), 1000, 0, 30000, "");
+
     @BeforeEach
     public void setup() throws URISyntaxException {
         resolver.setType(ResolverType.REMOTE);
@@ -55,6 +70,7 @@ public class RemoteResourceResolverTest {
         resolver.setCredentials(credentials);
         setField(remoteResourceResolver, "resolver", resolver);
         setField(remoteResourceResolver, "restTemplate", restTemplate);
+        setField(remoteResourceResolver, "nearCache", nearCache);
     }
 
     @Test
@@ -158,4 +174,68 @@ public class RemoteResourceResolverTest {
         });
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLookupOrCreateAll() throws URISyntaxException {
+        Map<String, String> ids = new LinkedHashMap<String, String>();
+        ids.put(mockResource.getUrl(), mockResource.getId());
+        ids.put(mockResourceNotExist.getUrl(), mockResourceNotExist.getId());
+        when(restTemplate.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class))).thenReturn(new ResponseEntity<Map<String, String>>(ids, HttpStatus.OK));
+
+        assertEquals(ids, remoteResourceResolver.lookupOrCreateAll(ids.keySet()));
+
+        ArgumentCaptor<RequestEntity<List<String>>> request = ArgumentCaptor.forClass(RequestEntity.class);
+        verify(restTemplate).exchange(request.capture(), any(ParameterizedTypeReference.class));
+        assertEquals(URI.create("http://localhost:9001/entity/batch"), request.getValue().getUrl());
+        assertEquals(Arrays.asList(mockResource.getUrl(), mockResourceNotExist.getUrl()), request.getValue().getBody());
+        assertNotNull(request.getValue().getHeaders().getFirst("Authorization"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testResolveAllBatchUnsupported() throws URISyntaxException {
+        when(restTemplate.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class))).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class))).thenAnswer(invocation -> {
+            RequestEntity<Void> request = invocation.getArgument(0);
+            if (request.getUrl().getPath().endsWith(mockResource.getId())) {
+                return new ResponseEntity<String>(mockResource.getUrl(), HttpStatus.OK);
+            }
+            return new ResponseEntity<String>(HttpStatus.NOT_FOUND);
+        });
+
+        List<String> ids = Arrays.asList(mockResource.getId(), mockResourceNotExist.getId());
+        assertEquals(Collections.singletonMap(mockResource.getId(), mockResource.getUrl()), remoteResourceResolver.resolveAll(ids));
+        assertEquals(Collections.singletonMap(mockResource.getId(), mockResource.getUrl()), remoteResourceResolver.resolveAll(ids));
+
+        // the missing batch endpoint is remembered
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testLookupCached() throws NotFoundException, URISyntaxException {
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class))).thenReturn(new ResponseEntity<String>(mockResource.getId(), HttpStatus.OK));
+        assertEquals(mockResource.getId(), remoteResourceResolver.lookup(mockResource.getUrl()));
+        assertEquals(mockResource.getId(), remoteResourceResolver.lookup(mockResource.getUrl()));
+        // the mapping is known in both directions
+        assertEquals(mockResource.getUrl(), remoteResourceResolver.resolve(mockResource.getId()));
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), eq(String.class));
+    }
+
+    @Test
+    public void testLookupNotFoundCached() throws URISyntaxException {
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class))).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        Assertions.assertThrows(NotFoundException.class, () -> remoteResourceResolver.lookup(mockResourceNotExist.getUrl()));
+        Assertions.assertThrows(NotFoundException.class, () -> remoteResourceResolver.lookup(mockResourceNotExist.getUrl()));
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), eq(String.class));
+    }
+
+    @Test
+    public void testRemoveEvicts() throws NotFoundException, URISyntaxException {
+        nearCache.put(mockResource.getId(), mockResource.getUrl());
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class))).thenReturn(new ResponseEntity<String>(HttpStatus.NO_CONTENT));
+        remoteResourceResolver.remove(mockResource.getId());
+        assertFalse(nearCache.getId(mockResource.getUrl()).isPresent());
+        assertFalse(nearCache.getUrl(mockResource.getId()).isPresent());
+    }
+
 }
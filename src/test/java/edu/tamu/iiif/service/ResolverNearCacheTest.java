@@ -0,0 +1,89 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+public class ResolverNearCacheTest {
+
+    private static final String ID = "2f0ea2d4-3e0e-3e2e-8f6a-9b1f4c2a7d11";
+
+    private static final String URL = "http://localhost:9000/fcrepo/rest/image01";
+
+    private ResolverNearCache nearCache = new ResolverNearCache(new SimpleMeterRegistry(), 1000, 0, 30000, "");
+
+    @Test
+    public void testPut() {
+        nearCache.put(ID, URL);
+        assertEquals(Optional.of(ID), nearCache.getId(URL));
+        assertEquals(Optional.of(URL), nearCache.getUrl(ID));
+    }
+
+    @Test
+    public void testMissing() {
+        nearCache.missingUrl(URL);
+        nearCache.missingId(ID);
+        assertTrue(nearCache.isMissingUrl(URL));
+        assertTrue(nearCache.isMissingId(ID));
+
+        // created meanwhile
+        nearCache.put(ID, URL);
+        assertFalse(nearCache.isMissingUrl(URL));
+        assertFalse(nearCache.isMissingId(ID));
+    }
+
+    @Test
+    public void testMissingExpires() throws InterruptedException {
+        nearCache = new ResolverNearCache(new SimpleMeterRegistry(), 1000, 0, 10, "");
+        nearCache.missingUrl(URL);
+        Thread.sleep(50);
+        assertFalse(nearCache.isMissingUrl(URL));
+    }
+
+    @Test
+    public void testEvict() {
+        nearCache.put(ID, URL);
+        nearCache.evict(ID);
+        assertFalse(nearCache.getId(URL).isPresent());
+        assertFalse(nearCache.getUrl(ID).isPresent());
+    }
+
+    @Test
+    public void testDisabled() {
+        nearCache = new ResolverNearCache(new SimpleMeterRegistry(), 0, 0, 30000, "");
+        nearCache.put(ID, URL);
+        nearCache.missingId(ID);
+        assertFalse(nearCache.getUrl(ID).isPresent());
+        assertFalse(nearCache.isMissingId(ID));
+    }
+
+    @Test
+    public void testSnapshot(@TempDir Path directory) throws IOException {
+        Path snapshot = directory.resolve("resolver.ndjson");
+        nearCache.put(ID, URL);
+        nearCache.put("b1c2", "http://localhost:9000/fcrepo/rest/image02");
+        assertEquals(2, nearCache.save(snapshot));
+        Files.write(snapshot, "not json\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ResolverNearCache warmed = new ResolverNearCache(new SimpleMeterRegistry(), 1000, 0, 30000, snapshot.toString());
+        assertEquals(2, warmed.load(snapshot));
+        assertEquals(Optional.of(ID), warmed.getId(URL));
+        assertEquals(Optional.of("http://localhost:9000/fcrepo/rest/image02"), warmed.getUrl("b1c2"));
+    }
+
+}
@@ -0,0 +1,146 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class ResourceRegistryTest {
+
+    private static final String ID = "2f0ea2d4-3e0e-3e2e-8f6a-9b1f4c2a7d11";
+
+    private static final String URL = "http://localhost:9000/fcrepo/rest/image01";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private MeterRegistry meterRegistry;
+
+    private ResourceRegistry resourceRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        resourceRegistry = new ResourceRegistry(redisTemplate, meterRegistry, true, 60000, 2, 100000);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        resourceRegistry.shutdown();
+    }
+
+    @Test
+    public void testRegister() {
+        resourceRegistry.register(ID, URL);
+        resourceRegistry.register(ID, URL);
+        assertEquals(Optional.of(URL), resourceRegistry.get(ID));
+        assertTrue(resourceRegistry.contains(ID));
+        assertEquals(1, meterRegistry.get("iiif.resolver.registry").tag("result", "registered").counter().count());
+        verify(hashOperations, never()).putAll(eq(ResourceRegistry.KEY), anyMap());
+    }
+
+    @Test
+    public void testFlush() {
+        for (int i = 0; i < 5; i++) {
+            resourceRegistry.register(ID + i, URL + i);
+        }
+        assertEquals(5, resourceRegistry.flush());
+        // batches of two
+        verify(hashOperations, times(3)).putAll(eq(ResourceRegistry.KEY), anyMap());
+        assertEquals(0, resourceRegistry.flush());
+
+        // known to be stored, not registered again
+        resourceRegistry.register(ID + 0, URL + 0);
+        assertEquals(0, resourceRegistry.flush());
+        assertTrue(resourceRegistry.contains(ID + 0));
+    }
+
+    @Test
+    public void testFlushFailure() {
+        doThrow(new RedisConnectionFailureException("unavailable")).when(hashOperations).putAll(eq(ResourceRegistry.KEY), anyMap());
+        resourceRegistry.register(ID, URL);
+        assertEquals(0, resourceRegistry.flush());
+        // kept for the next flush
+        assertEquals(Optional.of(URL), resourceRegistry.get(ID));
+    }
+
+    @Test
+    public void testFlushIds() {
+        resourceRegistry.register(ID, URL);
+        resourceRegistry.register(ID + 1, URL + 1);
+        resourceRegistry.flush();
+        resourceRegistry.register(ID + 2, URL + 2);
+        Map<String, String> urls = new HashMap<String, String>();
+        urls.put(ID, URL);
+        urls.put(ID + 2, URL + 2);
+        // dropped when too many were pending
+        urls.put(ID + 3, URL + 3);
+        assertEquals(2, resourceRegistry.flush(urls));
+        assertTrue(resourceRegistry.contains(ID + 3));
+        // one batch of two after the first flush
+        verify(hashOperations, times(2)).putAll(eq(ResourceRegistry.KEY), anyMap());
+    }
+
+    @Test
+    public void testFlushIdsFailure() {
+        doThrow(new RedisConnectionFailureException("unavailable")).when(hashOperations).putAll(eq(ResourceRegistry.KEY), anyMap());
+        resourceRegistry.register(ID, URL);
+        assertThrows(RedisConnectionFailureException.class, () -> resourceRegistry.flush(Collections.singletonMap(ID, URL)));
+        assertEquals(Optional.of(URL), resourceRegistry.get(ID));
+    }
+
+    @Test
+    public void testGetAll() {
+        resourceRegistry.register(ID, URL);
+        when(hashOperations.multiGet(ResourceRegistry.KEY, Arrays.<Object>asList(ID + 1, ID + 2))).thenReturn(Arrays.<Object>asList(URL + 1, null));
+        Map<String, String> urls = resourceRegistry.getAll(Arrays.asList(ID, ID + 1, ID + 2));
+        assertEquals(2, urls.size());
+        assertEquals(URL, urls.get(ID));
+        assertEquals(URL + 1, urls.get(ID + 1));
+    }
+
+    @Test
+    public void testRemove() {
+        resourceRegistry.register(ID, URL);
+        assertTrue(resourceRegistry.remove(ID));
+        when(hashOperations.get(ResourceRegistry.KEY, ID)).thenReturn(null);
+        when(hashOperations.delete(ResourceRegistry.KEY, ID)).thenReturn(0L);
+        assertFalse(resourceRegistry.remove(ID));
+        assertEquals(Optional.empty(), resourceRegistry.get(ID));
+    }
+
+}
@@ -0,0 +1,155 @@
+package edu.tamu.iiif.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Map.Entry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.tamu.iiif.model.RedisResource;
+import edu.tamu.iiif.model.ResourceImport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class ResourceTransferTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private Cursor<String> ids;
+
+    @Mock
+    private Cursor<Entry<Object, Object>> registered;
+
+    private ResourceTransfer resourceTransfer;
+
+    private final RedisResource mockResource = new RedisResource("http://localhost:9000/fcrepo/rest/image01");
+
+    private final RedisResource mockResourceExpired = new RedisResource("http://localhost:9000/fcrepo/rest/image02");
+
+    private final RedisResource mockResourceRegistered = new RedisResource("http://localhost:9000/fcrepo/rest/image03");
+
+    @BeforeEach
+    public void setup() {
+        ResourceRegistry resourceRegistry = new ResourceRegistry(redisTemplate, new SimpleMeterRegistry(), false, 1000, 1000, 100000);
+        resourceTransfer = new ResourceTransfer(redisTemplate, resourceRegistry, new SimpleMeterRegistry(), 1000, 100000, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExport() throws IOException {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(setOperations.scan(eq(RedisResourceResolver.KEYSPACE), any(ScanOptions.class))).thenReturn(ids);
+        when(ids.hasNext()).thenReturn(true, true, false);
+        when(ids.next()).thenReturn(mockResource.getId(), mockResourceExpired.getId());
+        when(hashOperations.scan(eq(ResourceRegistry.KEY), any(ScanOptions.class))).thenReturn(registered);
+        when(registered.hasNext()).thenReturn(true, true, false);
+        when(registered.next()).thenReturn(new SimpleEntry<Object, Object>(mockResource.getId(), mockResource.getUrl()), new SimpleEntry<Object, Object>(mockResourceRegistered.getId(), mockResourceRegistered.getUrl()));
+        // URLs of the stored ids, then which registered ids are stored
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(mockResource.getUrl(), null), Arrays.<Object>asList(true, false));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, resourceTransfer.export(out));
+
+        String expected = String.format("{\"id\":\"%s\",\"url\":\"%s\"}\n{\"id\":\"%s\",\"url\":\"%s\"}\n", mockResource.getId(), mockResource.getUrl(), mockResourceRegistered.getId(), mockResourceRegistered.getUrl());
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        verify(ids).close();
+        verify(registered).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad() throws IOException {
+        // @formatter:off
+        String mappings = String.join("\n",
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResource.getId(), mockResource.getUrl()),
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResourceRegistered.getId(), mockResourceRegistered.getUrl()),
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResourceRegistered.getId(), mockResourceRegistered.getUrl()),
+            String.format("{\"id\":\"%s\",\"url\":\"fubar\"}", mockResourceExpired.getId()),
+            "not json",
+            ""
+        );
+        // @formatter:on
+        // the first is stored already
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(true, true, false, false), Arrays.<Object>asList());
+
+        ResourceImport result = resourceTransfer.load(new ByteArrayInputStream(mappings.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, result.getRead());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, result.getInvalid());
+        // existence checked and missing written in one pipeline each
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoadRejectsIdsNotDerived() throws IOException {
+        // @formatter:off
+        String mappings = String.join("\n",
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResource.getId(), mockResource.getUrl()),
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResourceExpired.getId(), mockResourceRegistered.getUrl())
+        );
+        // @formatter:on
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(false, false), Arrays.<Object>asList());
+
+        ResourceImport result = resourceTransfer.load(new ByteArrayInputStream(mappings.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getRead());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(0, result.getInvalid());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoadInBatches() throws IOException {
+        resourceTransfer = new ResourceTransfer(redisTemplate, new ResourceRegistry(redisTemplate, new SimpleMeterRegistry(), false, 1000, 1000, 100000), new SimpleMeterRegistry(), 1, 100000, 0);
+        // @formatter:off
+        String mappings = String.join("\n",
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResource.getId(), mockResource.getUrl()),
+            String.format("{\"id\":\"%s\",\"url\":\"%s\"}", mockResourceRegistered.getId(), mockResourceRegistered.getUrl())
+        );
+        // @formatter:on
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.<Object>asList(false, false), Arrays.<Object>asList(), Arrays.<Object>asList(true, false));
+
+        ResourceImport result = resourceTransfer.load(new ByteArrayInputStream(mappings.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getSkipped());
+        verify(redisTemplate, times(3)).executePipelined(any(RedisCallback.class));
+    }
+
+}
@@ -43,7 +43,7 @@ public class DSpaceRdfCanvasManifestServiceTest extends AbstractDSpaceRdfManifes
 
     @Test
     public void testGetManifest() throws IOException, URISyntaxException {
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308"), eq(String.class))).thenReturn(readFileToString(rdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308", rdf);
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", "image/png; charset=utf-8");
         when(restTemplate.headForHeaders(eq(DSPACE_URL + "/xmlui/bitstream/123456789/158308/1/sports-car-146873_960_720.png"))).thenReturn(headers);
@@ -1,9 +1,6 @@
 package edu.tamu.iiif.service.dspace.rdf;
 
-import static org.apache.commons.io.FileUtils.readFileToString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -51,11 +48,11 @@ public class DSpaceRdfCollectionManifestServiceTest extends AbstractDSpaceRdfMan
 
     @Test
     public void testGetManifest() throws IOException, URISyntaxException {
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158299"), eq(String.class))).thenReturn(readFileToString(collectionRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158301"), eq(String.class))).thenReturn(readFileToString(subcommunityRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158302"), eq(String.class))).thenReturn(readFileToString(communityRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158298"), eq(String.class))).thenReturn(readFileToString(communityRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308"), eq(String.class))).thenReturn(readFileToString(itemRdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158299", collectionRdf);
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158301", subcommunityRdf);
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158302", communityRdf);
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158298", communityRdf);
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308", itemRdf);
 
         String collectionManifest = dspaceRdfCollectionManifestService.getManifest(ManifestRequest.of("123456789/158299", false));
 
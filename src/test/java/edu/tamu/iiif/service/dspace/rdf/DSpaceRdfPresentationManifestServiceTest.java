@@ -3,10 +3,15 @@ package edu.tamu.iiif.service.dspace.rdf;
 import static edu.tamu.iiif.model.ManifestType.PRESENTATION;
 import static org.apache.commons.io.FileUtils.readFileToString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.lenient;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -20,13 +25,17 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.http.HttpHeaders;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import edu.tamu.iiif.controller.ManifestRequest;
+import edu.tamu.iiif.model.ManifestBody;
 import edu.tamu.iiif.model.ManifestType;
 import edu.tamu.iiif.model.RedisManifest;
+import edu.tamu.iiif.service.GenerationLease.Lease;
+import edu.tamu.iiif.service.RdfDocumentCache;
 
 @ExtendWith(MockitoExtension.class)
 public class DSpaceRdfPresentationManifestServiceTest extends AbstractDSpaceRdfManifestServiceTest {
@@ -76,7 +85,7 @@ public class DSpaceRdfPresentationManifestServiceTest extends AbstractDSpaceRdfM
     @Test
     public void testGetCollectionManifest() throws IOException, URISyntaxException {
         setupMocks();
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158299"), eq(String.class))).thenReturn(readFileToString(collectionRdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158299", collectionRdf);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", "image/png; charset=utf-8");
@@ -102,7 +111,7 @@ public class DSpaceRdfPresentationManifestServiceTest extends AbstractDSpaceRdfM
     @Test
     public void testGetManifestCached() throws IOException, URISyntaxException {
         RedisManifest redisManifest = new RedisManifest("123456789/158308", PRESENTATION, DSPACE_RDF_IDENTIFIER, readFileToString(presentation.getFile(), "UTF-8"));
-        when(redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
+        when(redisManifestStore.find(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
         String manifest = dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", false));
         assertEquals(objectMapper.readValue(presentation.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
     }
@@ -111,14 +120,38 @@ public class DSpaceRdfPresentationManifestServiceTest extends AbstractDSpaceRdfM
     public void testGetManifestUpdateCached() throws IOException, URISyntaxException {
         setupMocks();
         RedisManifest redisManifest = new RedisManifest("123456789/158308", PRESENTATION, DSPACE_RDF_IDENTIFIER, readFileToString(presentation.getFile(), "UTF-8"));
-        when(redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
+        when(redisManifestStore.find(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
         String manifest = dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", true));
         assertEquals(objectMapper.readValue(presentation.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
     }
 
+    @Test
+    public void testGetManifestUpdateSeesChangedRdf() throws IOException, URISyntaxException {
+        setField(dspaceRdfPresentationManifestService, "rdfDocumentCache", new RdfDocumentCache(1048576, 60000));
+        setupMocks();
+        String manifest = dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", false));
+        assertEquals("Corvette", objectMapper.readValue(manifest, JsonNode.class).get("label").asText());
+
+        // changed in the repository within the revalidation interval
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308", readFileToString(rdf.getFile(), "UTF-8").replace("\"Corvette\"", "\"Stingray\""));
+        manifest = dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", false));
+        assertEquals("Corvette", objectMapper.readValue(manifest, JsonNode.class).get("label").asText());
+
+        manifest = dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", true));
+        assertEquals("Stingray", objectMapper.readValue(manifest, JsonNode.class).get("label").asText());
+    }
+
+    @Test
+    public void testGetManifestNotStoredWithoutResolverIds() throws IOException, URISyntaxException {
+        setupMocks();
+        doThrow(new RedisConnectionFailureException("unavailable")).when(resourceResolver).flush(anyMap());
+        assertThrows(IOException.class, () -> dspaceRdfPresentationManifestService.getManifest(ManifestRequest.of("123456789/158308", false)));
+        verify(redisManifestStore, never()).save(any(RedisManifest.class), any(ManifestBody.class), any(Lease.class));
+    }
+
     private void setupMocks() throws IOException {
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308"), eq(String.class))).thenReturn(readFileToString(rdf.getFile(), "UTF-8"));
-        lenient().when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308/1/sports-car-146873_960_720.png"), eq(String.class))).thenReturn(readFileToString(rdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308", rdf);
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308/1/sports-car-146873_960_720.png", rdf);
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", "image/png; charset=utf-8");
         when(restTemplate.headForHeaders(eq(DSPACE_URL + "/xmlui/bitstream/123456789/158308/1/sports-car-146873_960_720.png"))).thenReturn(headers);
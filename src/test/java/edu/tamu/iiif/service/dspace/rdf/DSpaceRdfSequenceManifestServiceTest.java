@@ -2,8 +2,12 @@ package edu.tamu.iiif.service.dspace.rdf;
 
 import static org.apache.commons.io.FileUtils.readFileToString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -44,7 +48,7 @@ public class DSpaceRdfSequenceManifestServiceTest extends AbstractDSpaceRdfManif
 
     @Test
     public void testGetManifest() throws IOException, URISyntaxException {
-        when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308"), eq(String.class))).thenReturn(readFileToString(rdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308", rdf);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", "image/png; charset=utf-8");
@@ -52,11 +56,14 @@ public class DSpaceRdfSequenceManifestServiceTest extends AbstractDSpaceRdfManif
         when(restTemplate.getForObject(eq(IMAGE_SERVICE_URL + "/ZHNwYWNlLXJkZjp4bWx1aS9iaXRzdHJlYW0vMTIzNDU2Nzg5LzE1ODMwOC8xL3Nwb3J0cy1jYXItMTQ2ODczXzk2MF83MjAucG5n/info.json"), eq(String.class))).thenReturn(readFileToString(image.getFile(), "UTF-8"));
 
         // Lenient() is required here because Mockito incorrectly thinks this is not used and reports this as unnecessary stubbing but removing this stub results in a NPE.
-        lenient().when(restTemplate.getForObject(eq(DSPACE_URL + "/rdf/handle/123456789/158308/1/sports-car-146873_960_720.png"), eq(String.class))).thenReturn(readFileToString(rdf.getFile(), "UTF-8"));
+        mockRdf(DSPACE_URL + "/rdf/handle/123456789/158308/1/sports-car-146873_960_720.png", rdf);
 
         String manifest = dspaceRdfSequenceManifestService.getManifest(ManifestRequest.of("123456789/158308", false));
 
         assertEquals(objectMapper.readValue(sequence.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
+        // resolver ids of the sequence's images are resolved in one batch
+        verify(resourceResolver, times(1)).lookupOrCreateAll(anyCollection());
+        verify(resourceResolver, never()).lookupOrCreate(anyString());
     }
 
 }
@@ -1,9 +1,6 @@
 package edu.tamu.iiif.service.fedora.pcdm;
 
-import static org.apache.commons.io.FileUtils.readFileToString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -48,9 +45,9 @@ public class FedoraPcdmCollectionManifestServiceTest extends AbstractFedoraPcdmM
 
     @Test
     public void testGetManifest() throws IOException, URISyntaxException {
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog"), eq(String.class))).thenReturn(readFileToString(collectionRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084"), eq(String.class))).thenReturn(readFileToString(itemRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/fcr:metadata"), eq(String.class))).thenReturn(readFileToString(itemRdf.getFile(), "UTF-8"));
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog", collectionRdf);
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084", itemRdf);
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/fcr:metadata", itemRdf);
 
         String manifest = fedoraPcdmCollectionManifestService.getManifest(ManifestRequest.of("mwbObjects/TGWCatalog", false));
         assertEquals(objectMapper.readValue(collection.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
@@ -83,7 +83,7 @@ public class FedoraPcdmPresentationManifestServiceTest extends AbstractFedoraPcd
     @Test
     public void testGetManifestCached() throws IOException, URISyntaxException {
         RedisManifest redisManifest = new RedisManifest("mwbObjects/TGWCatalog/Pages/ExCat0084", PRESENTATION, FEDORA_PCDM_IDENTIFIER, readFileToString(presentation.getFile(), "UTF-8"));
-        when(redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
+        when(redisManifestStore.find(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
         String manifest = fedoraPcdmPresentationManifestService.getManifest(ManifestRequest.of("mwbObjects/TGWCatalog/Pages/ExCat0084", false));
         assertEquals(objectMapper.readValue(presentation.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
     }
@@ -92,7 +92,7 @@ public class FedoraPcdmPresentationManifestServiceTest extends AbstractFedoraPcd
     public void testGetManifestUpdateCached() throws IOException, URISyntaxException {
         setupMocks();
         RedisManifest redisManifest = new RedisManifest("mwbObjects/TGWCatalog/Pages/ExCat0084", PRESENTATION, FEDORA_PCDM_IDENTIFIER, readFileToString(presentation.getFile(), "UTF-8"));
-        when(redisManifestRepo.findByPathAndTypeAndRepositoryAndAllowedAndDisallowed(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
+        when(redisManifestStore.find(any(String.class), any(ManifestType.class), any(String.class), any(String.class), any(String.class))).thenReturn(Optional.of(redisManifest));
         String manifest = fedoraPcdmPresentationManifestService.getManifest(ManifestRequest.of("mwbObjects/TGWCatalog/Pages/ExCat0084", true));
         assertEquals(objectMapper.readValue(presentation.getFile(), JsonNode.class), objectMapper.readValue(manifest, JsonNode.class));
     }
@@ -101,9 +101,9 @@ public class FedoraPcdmPresentationManifestServiceTest extends AbstractFedoraPcd
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", "image/png; charset=utf-8");
         when(restTemplate.headForHeaders(any(String.class))).thenReturn(headers);
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084"), eq(String.class))).thenReturn(readFileToString(itemRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/files/fcr:metadata"), eq(String.class))).thenReturn(readFileToString(itemFilesRdf.getFile(), "UTF-8"));
-        when(restTemplate.getForObject(eq(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/files/ExCat0084.jpg/fcr:metadata"), eq(String.class))).thenReturn(readFileToString(itemFilesEntryRdf.getFile(), "UTF-8"));
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084", itemRdf);
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/files/fcr:metadata", itemFilesRdf);
+        mockRdf(FEDORA_URL + "/mwbObjects/TGWCatalog/Pages/ExCat0084/files/ExCat0084.jpg/fcr:metadata", itemFilesEntryRdf);
         when(restTemplate.getForObject(eq(IMAGE_SERVICE_URL + "/ZmVkb3JhLXBjZG06bXdiT2JqZWN0cy9UR1dDYXRhbG9nL1BhZ2VzL0V4Q2F0MDA4NC9maWxlcy9FeENhdDAwODQuanBn/info.json"), eq(String.class))).thenReturn(readFileToString(image.getFile(), "UTF-8"));
     }
 
@@ -0,0 +1,62 @@
+package edu.tamu.iiif.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.text.StringEscapeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class JsonUnescapeWriterTest {
+
+    private static final String[] VALUES = { "{\"label\":\"Sports car\"}", "{\"label\":\"\\\"quoted\\\" a\\/b\\\\c\\u00e9\\t\"}", "\\b\\f\\n\\r\\t", "\\uuu00e9 \\u+00e9", "\\101\\7\\477\\0", "a\\", "" };
+
+    @Test
+    public void testUnescape() throws IOException {
+        for (String value : VALUES) {
+            assertEquals(StringEscapeUtils.unescapeJson(value), unescape(value, value.length()), value);
+        }
+    }
+
+    @Test
+    public void testUnescapeSplitWrites() throws IOException {
+        for (String value : VALUES) {
+            for (int chunk = 1; chunk < 4; chunk++) {
+                assertEquals(StringEscapeUtils.unescapeJson(value), unescape(value, chunk), value);
+            }
+        }
+    }
+
+    @Test
+    public void testUnescapeManifests() throws IOException {
+        for (File manifest : FileUtils.listFiles(new File("src/test/resources/mock"), new String[] { "json" }, true)) {
+            String json = FileUtils.readFileToString(manifest, StandardCharsets.UTF_8);
+            assertEquals(StringEscapeUtils.unescapeJson(json), unescape(json, 1000), manifest.getPath());
+        }
+    }
+
+    @Test
+    public void testIncompleteUnicode() {
+        assertThrows(IOException.class, () -> unescape("\\u00", 4));
+    }
+
+    private String unescape(String value, int chunk) throws IOException {
+        StringWriter unescaped = new StringWriter();
+        try (Writer writer = new JsonUnescapeWriter(unescaped)) {
+            for (int i = 0; i < value.length(); i += chunk) {
+                writer.write(value, i, Math.min(chunk, value.length() - i));
+            }
+        }
+        return unescaped.toString();
+    }
+
+}
@@ -4,19 +4,25 @@ import static edu.tamu.iiif.constants.Constants.DUBLIN_CORE_TERMS_DESCRIPTION;
 import static edu.tamu.iiif.constants.Constants.DUBLIN_CORE_TERMS_TITLE;
 import static edu.tamu.iiif.constants.Constants.IANA_FIRST_PREDICATE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
 import org.assertj.core.util.Files;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import edu.tamu.iiif.model.rdf.RdfResource;
@@ -36,6 +42,22 @@ public class RdfModelUtilityTest {
         assertNotNull(model);
     }
 
+    @Test
+    public void testCreateRdfModelFromStream() throws IOException {
+        try (InputStream stream = new FileInputStream("src/test/resources/mock/dspace/rdf/item.rdf")) {
+            Model model = RdfModelUtility.createRdfModel(stream, Optional.of(MediaType.valueOf("text/turtle;charset=utf-8")));
+            assertFalse(model.isEmpty());
+        }
+    }
+
+    @Test
+    public void testGetRdfLang() {
+        assertEquals(Lang.NTRIPLES, RdfModelUtility.getRdfLang(Optional.of(MediaType.valueOf("application/n-triples"))));
+        assertEquals(Lang.RDFXML, RdfModelUtility.getRdfLang(Optional.of(MediaType.valueOf("application/rdf+xml"))));
+        assertEquals(Lang.TURTLE, RdfModelUtility.getRdfLang(Optional.of(MediaType.TEXT_PLAIN)));
+        assertEquals(Lang.TURTLE, RdfModelUtility.getRdfLang(Optional.empty()));
+    }
+
     @Test
     public void testFindIdByPredicate() {
         String rdf = Files.contentOf(new File("src/test/resources/mock/fedora/rdf/collection_container.rdf"), "UTF-8");
@@ -1,8 +1,15 @@
 package edu.tamu.iiif.utility;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.text.StringEscapeUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -30,4 +37,21 @@ public class StringUtilityTest {
         assertEquals("Hello, World!", StringUtility.decode("SGVsbG8sIFdvcmxkIQ=="));
     }
 
+    @Test
+    public void testUnescapeJson() {
+        String[] values = { "{\"label\":\"Sports car\"}", "{\"label\":\"\\\"quoted\\\" a\\/b\\\\c\\u00e9\\t\"}", "\\", "", null };
+        for (String value : values) {
+            assertEquals(StringEscapeUtils.unescapeJson(value), StringUtility.unescapeJson(value));
+        }
+    }
+
+    @Test
+    public void testUnescapeJsonManifests() throws IOException {
+        for (File manifest : FileUtils.listFiles(new File("src/test/resources/mock"), new String[] { "json" }, true)) {
+            String json = FileUtils.readFileToString(manifest, StandardCharsets.UTF_8);
+            byte[] expected = StringEscapeUtils.unescapeJson(json).getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, StringUtility.unescapeJson(json).getBytes(StandardCharsets.UTF_8), manifest.getPath());
+        }
+    }
+
 }